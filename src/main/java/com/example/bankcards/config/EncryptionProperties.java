@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "encryption")
+@Getter
+@Setter
+public class EncryptionProperties {
+
+    // Версия ключа, которым шифруются новые значения
+    private int activeKeyId;
+
+    // Версия -> AES-ключ в Base64 (16, 24 или 32 байта). Старые версии остаются, пока есть зашифрованные ими данные
+    private Map<Integer, String> keys = new HashMap<>();
+
+    // Ключ AES/ECB, которым шифровались значения до появления версий
+    private String legacyKey;
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Task schedulers of {@code @Scheduled} jobs. Jobs that can run for long or continuously get their own
+ * thread, so they never hold back the short jobs on the shared pool (token refresh, card expiry, ledger).
+ */
+@Configuration
+public class SchedulingConfig {
+
+    // Общий пул для заданий без собственного планировщика; размер — spring.task.scheduling.pool.size
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        return singleThreadScheduler("outbox-relay-");
+    }
+
+    // Без секции на текущий месяц вставки переводов падают, поэтому создание секций не ждёт ни архивации,
+    // ни остальных заданий
+    @Bean
+    public ThreadPoolTaskScheduler transactionPartitionScheduler() {
+        return singleThreadScheduler("transaction-partitions-");
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler transactionArchiveScheduler() {
+        return singleThreadScheduler("transaction-archive-");
+    }
+
+    private static ThreadPoolTaskScheduler singleThreadScheduler(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+}
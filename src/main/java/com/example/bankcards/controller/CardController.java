@@ -3,22 +3,30 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.security.UserDetailsImpl;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.TransactionExportFormat;
+import com.example.bankcards.service.TransactionService;
 import com.example.bankcards.service.TransferService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/cards")
@@ -27,29 +35,67 @@ public class CardController {
 
     private final CardService cardService;
     private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncTransferService asyncTransferService;
+    private final TransactionService transactionService;
 
     @GetMapping("/my")
     public ResponseEntity<Page<CardDto>> getMyCards(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        Page<CardDto> cards = cardService.getUserCardsByUsername(userDetails.getUsername(), pageable);
+        Page<CardDto> cards = cardService.getUserCards(userDetails.getId(), pageable);
         return ResponseEntity.ok(cards);
     }
 
+    @GetMapping("/my/transactions")
+    public ResponseEntity<TransactionHistoryResponse> getMyTransactions(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTimestamp,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+
+        TransactionHistoryResponse history = transactionService.getUserHistory(
+                userDetails.getId(), beforeTimestamp, beforeId, size);
+        return ResponseEntity.ok(history);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CardDto> getCardById(@PathVariable Long id) {
         CardDto card = cardService.getCardById(id);
         return ResponseEntity.ok(card);
     }
 
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<TransactionHistoryResponse> getCardTransactions(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTimestamp,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+
+        TransactionHistoryResponse history = transactionService.getCardHistory(
+                userDetails.getId(), id, beforeTimestamp, beforeId, size);
+        return ResponseEntity.ok(history);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
-    @GetMapping("/all-cards")
-    public ResponseEntity<List<CardDto>> getAllCards() {
-        List<CardDto> cards = cardService.getAllCards();
+    @GetMapping("/admin/search")
+    public ResponseEntity<CardSearchResponse> searchCards(
+            @RequestParam(required = false) CardStatus status,
+            @RequestParam(required = false) Boolean isBlocked,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresTo,
+            @RequestParam(required = false) String cardHolder,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CardSearchFilter filter = new CardSearchFilter(status, isBlocked, userId, expiresFrom, expiresTo, cardHolder);
+        CardSearchResponse cards = cardService.searchCards(filter, afterId, size);
         return ResponseEntity.ok(cards);
     }
 
@@ -60,6 +106,28 @@ public class CardController {
         return ResponseEntity.ok(card);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/bulk-create")
+    public ResponseEntity<BulkCardCreateResponse> bulkCreateCards(@Valid @RequestBody BulkCardCreateRequest request) {
+        BulkCardCreateResponse response = cardService.bulkCreateCards(request.getCards());
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/bulk-status")
+    public ResponseEntity<BulkCardStatusResponse> bulkUpdateCards(@Valid @RequestBody BulkCardStatusRequest request) {
+        BulkCardStatusResponse response = cardService.bulkUpdateCards(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Номер передаётся в теле запроса, чтобы не попадать в URL и журналы доступа
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/lookup")
+    public ResponseEntity<CardDto> findCardByNumber(@Valid @RequestBody CardLookupRequest request) {
+        CardDto card = cardService.findCardByNumber(request.getCardNumber());
+        return ResponseEntity.ok(card);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PatchMapping("/{id}/status")
     public ResponseEntity<CardDto> updateCardStatus(
@@ -73,31 +141,73 @@ public class CardController {
     @PostMapping("/transfer")
     public ResponseEntity<TransferResponse> transferBetweenMyCards(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransferRequest request) {
 
-        transferService.transferBetweenUserCards(userDetails.getId(), request);
+        TransferResponse response = idempotencyService.execute(userDetails.getId(), idempotencyKey, request, () -> {
+            transferService.transferBetweenUserCards(userDetails.getId(), request);
+            return successfulTransfer(request);
+        });
 
-        TransferResponse response = new TransferResponse(
-                "success",
-                request.getFromCardId(),
-                request.getToCardId(),
-                request.getAmount(),
-                request.getDescription(),
-                LocalDateTime.now()
-        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/transfer/async")
+    public ResponseEntity<AsyncTransferResponse> submitTransfer(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @Valid @RequestBody TransferRequest request) {
+
+        AsyncTransferResponse response = asyncTransferService.submit(userDetails.getId(), request);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @GetMapping("/transfer/async/{transferId}")
+    public ResponseEntity<AsyncTransferResponse> getTransferStatus(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable String transferId) {
 
+        AsyncTransferResponse response = asyncTransferService.getStatus(userDetails.getId(), transferId);
         return ResponseEntity.ok(response);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/admin/transfer")
     public ResponseEntity<Void> transferBetweenCards(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransferRequest request) {
 
-        transferService.transferBetweenCards(request);
+        idempotencyService.execute(userDetails.getId(), idempotencyKey, request, () -> {
+            transferService.transferBetweenCards(request);
+            return successfulTransfer(request);
+        });
         return ResponseEntity.ok().build();
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(
+            @Valid @RequestBody BatchTransferRequest request) {
+
+        BatchTransferResponse response = transferService.transferBatch(request.getTransfers());
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/transactions/export")
+    public void exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + format.getExtension() + "\"");
+        transactionService.exportTransactions(from, to, format, response.getOutputStream());
+    }
+
     @PostMapping("/{id}/block")
     public ResponseEntity<BlockCardResponse> blockCard(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
@@ -122,4 +232,15 @@ public class CardController {
         cardService.deleteCard(id);
         return ResponseEntity.noContent().build();
     }
+
+    private TransferResponse successfulTransfer(TransferRequest request) {
+        return new TransferResponse(
+                "success",
+                request.getFromCardId(),
+                request.getToCardId(),
+                request.getAmount(),
+                request.getDescription(),
+                LocalDateTime.now()
+        );
+    }
 }
\ No newline at end of file
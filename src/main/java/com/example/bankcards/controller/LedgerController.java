@@ -0,0 +1,23 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/ledger")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ReconciliationReport> reconcile() {
+        ReconciliationReport report = ledgerService.reconcile();
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.CardDailyTotalDto;
+import com.example.bankcards.dto.DailyVolumeDto;
+import com.example.bankcards.service.StatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/statistics")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    @GetMapping("/daily-volume")
+    public ResponseEntity<List<DailyVolumeDto>> getDailyVolume(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        List<DailyVolumeDto> volume = statisticsService.getDailyVolume(from, to);
+        return ResponseEntity.ok(volume);
+    }
+
+    @GetMapping("/cards/{cardId}/daily")
+    public ResponseEntity<List<CardDailyTotalDto>> getCardDailyTotals(
+            @PathVariable Long cardId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        List<CardDailyTotalDto> totals = statisticsService.getCardDailyTotals(cardId, from, to);
+        return ResponseEntity.ok(totals);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncTransferResponse {
+    private String transferId;
+    private String status;
+    private Long fromCardId;
+    private Long toCardId;
+    private BigDecimal amount;
+    private String description;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
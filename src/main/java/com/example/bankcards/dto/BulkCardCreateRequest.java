@@ -0,0 +1,21 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardCreateRequest {
+    @NotEmpty(message = "Cards are required")
+    @Size(max = 100000, message = "At most 100000 cards can be created in one request")
+    private List<@Valid CardCreateRequest> cards;
+}
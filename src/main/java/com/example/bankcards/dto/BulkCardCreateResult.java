@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardCreateResult {
+    private int index;
+    private Long userId;
+    private Long cardId;
+    private String maskedCardNumber;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.service.BulkCardAction;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardStatusRequest {
+    @NotNull(message = "Action is required")
+    private BulkCardAction action;
+    // Только для SET_STATUS
+    private CardStatus status;
+    // Задаётся либо список id, либо фильтр
+    @Size(max = 100000, message = "At most 100000 cards can be updated by id in one request")
+    private List<@NotNull Long> cardIds;
+    @Valid
+    private CardSearchFilter filter;
+}
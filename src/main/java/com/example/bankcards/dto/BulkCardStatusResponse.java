@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardStatusResponse {
+    // Карты, выбранные по id или фильтру
+    private int matched;
+    private int updated;
+    // Карты, не прошедшие правила операции (уже заблокирована, истекла и т.п.), и несуществующие id
+    private int skipped;
+    private int chunks;
+}
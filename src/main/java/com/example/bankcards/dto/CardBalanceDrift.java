@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+public interface CardBalanceDrift {
+    Long getCardId();
+    BigDecimal getBalance();
+    BigDecimal getLedgerBalance();
+}
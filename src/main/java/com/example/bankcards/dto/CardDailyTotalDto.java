@@ -0,0 +1,22 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardDailyTotalDto {
+    private Long cardId;
+    private LocalDate date;
+    private BigDecimal debitSum;
+    private BigDecimal creditSum;
+    private Long debitCount;
+    private Long creditCount;
+}
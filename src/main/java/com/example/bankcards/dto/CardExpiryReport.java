@@ -0,0 +1,21 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardExpiryReport {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // false, если задачу в это время выполняет другой узел
+    private boolean lockAcquired;
+    private int chunksProcessed;
+    private int cardsExpired;
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLookupRequest {
+
+    @NotBlank(message = "Card number is required")
+    @Pattern(regexp = "[0-9 -]{12,23}", message = "Card number must contain only digits, spaces and dashes")
+    private String cardNumber;
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSearchFilter {
+    private CardStatus status;
+    private Boolean isBlocked;
+    private Long userId;
+    private LocalDate expiresFrom;
+    private LocalDate expiresTo;
+    private String cardHolderPrefix;
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSearchResponse {
+    private List<CardDto> cards;
+    // Курсор следующей страницы: передаётся как afterId, null — страниц больше нет
+    private Long nextAfterId;
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardStatus;
+
+// Строка, возвращённая RETURNING массового UPDATE карт
+public interface CardStateChange {
+    Long getId();
+    Long getUserId();
+    CardStatus getStatus();
+    Boolean getIsBlocked();
+    Long getVersion();
+}
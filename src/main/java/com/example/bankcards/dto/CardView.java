@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Колонки карты для чтения без загрузки сущности: без номера, CVV и владельца
+public record CardView(Long id, String cardLast4, String cardHolder, LocalDate expirationDate,
+                       CardStatus status, BigDecimal balance, Boolean isBlocked) {
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryResponse {
+    private List<TransactionDto> transactions;
+    // Курсор следующей страницы: передаётся как beforeTimestamp/beforeId, null — страниц больше нет
+    private LocalDateTime nextBeforeTimestamp;
+    private Long nextBeforeId;
+}
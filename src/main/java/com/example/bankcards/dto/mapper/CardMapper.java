@@ -1,8 +1,8 @@
 package com.example.bankcards.dto.mapper;
 
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardView;
 import com.example.bankcards.entity.Card;
-import com.example.bankcards.util.EncryptionUtil;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,7 +11,7 @@ public class CardMapper {
     public CardDto toDto(Card card) {
         CardDto dto = new CardDto();
         dto.setId(card.getId());
-        dto.setMaskedCardNumber(maskCardNumber(card.getEncryptedCardNumber()));
+        dto.setMaskedCardNumber(maskCardNumber(card.getCardLast4()));
         dto.setCardHolder(card.getCardHolder());
         dto.setExpirationDate(card.getExpirationDate());
         dto.setStatus(card.getStatus());
@@ -20,10 +20,15 @@ public class CardMapper {
         return dto;
     }
 
-    private String maskCardNumber(String encryptedCardNumber) {
-        String decrypted = EncryptionUtil.decrypt(encryptedCardNumber);
-        if (decrypted.length() >= 16) {
-            return "**** **** **** " + decrypted.substring(decrypted.length() - 4);
+    public CardDto toDto(CardView card) {
+        return new CardDto(card.id(), maskCardNumber(card.cardLast4()), card.cardHolder(), card.expirationDate(),
+                card.status(), card.balance(), card.isBlocked());
+    }
+
+    // Маска строится из сохранённых последних 4 цифр — без расшифровки номера
+    public static String maskCardNumber(String cardLast4) {
+        if (cardLast4 != null && cardLast4.length() == 4) {
+            return "**** **** **** " + cardLast4;
         }
         return "**** **** **** ****";
     }
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.mapper;
+
+import com.example.bankcards.dto.TransactionDto;
+import com.example.bankcards.entity.Transaction;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionMapper {
+
+    // getId() у ленивого прокси карты не инициализирует его, поэтому маппинг не делает дополнительных запросов
+    public TransactionDto toDto(Transaction transaction) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(transaction.getId());
+        dto.setFromCardId(transaction.getFromCard() != null ? transaction.getFromCard().getId() : null);
+        dto.setToCardId(transaction.getToCard().getId());
+        dto.setAmount(transaction.getAmount());
+        dto.setTimestamp(transaction.getTimestamp());
+        dto.setDescription(transaction.getDescription());
+        return dto;
+    }
+}
@@ -19,12 +19,19 @@ import java.time.LocalDate;
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_seq")
+    @SequenceGenerator(name = "cards_seq", sequenceName = "cards_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "card_number", nullable = false)
     private String encryptedCardNumber;
 
+    @Column(name = "card_number_hash", length = 64, unique = true)
+    private String cardNumberHash;
+
+    @Column(name = "card_last4", length = 4, nullable = false)
+    private String cardLast4;
+
     @Column(nullable = false)
     private String cardHolder;
 
@@ -47,4 +54,8 @@ public class Card {
 
     @Column(nullable = false, name = "is_blocked")
     private Boolean isBlocked = false;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
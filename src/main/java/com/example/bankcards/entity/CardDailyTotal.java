@@ -0,0 +1,33 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "card_daily_totals")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardDailyTotal {
+
+    @EmbeddedId
+    private CardDailyTotalId id;
+
+    @Column(name = "debit_sum", nullable = false)
+    private BigDecimal debitSum;
+
+    @Column(name = "credit_sum", nullable = false)
+    private BigDecimal creditSum;
+
+    @Column(name = "debit_count", nullable = false)
+    private Long debitCount;
+
+    @Column(name = "credit_count", nullable = false)
+    private Long creditCount;
+}
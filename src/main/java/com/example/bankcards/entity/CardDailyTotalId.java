@@ -0,0 +1,27 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CardDailyTotalId implements Serializable {
+
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "total_date", nullable = false)
+    private LocalDate totalDate;
+}
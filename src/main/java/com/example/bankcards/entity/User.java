@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,7 +20,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -43,4 +45,12 @@ public class User {
 
     @Column(nullable = false)
     private Boolean active = true;
+
+    // Версия в JWT должна совпадать с текущей, иначе токен отклоняется
+    @Column(nullable = false)
+    private Integer tokenVersion = 0;
+
+    // По нему узлы находят пользователей, чья версия изменилась после прошлого опроса
+    @Column(name = "token_version_changed_at", nullable = false)
+    private LocalDateTime tokenVersionChangedAt = LocalDateTime.now();
 }
\ No newline at end of file
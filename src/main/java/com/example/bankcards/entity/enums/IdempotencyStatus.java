@@ -0,0 +1,5 @@
+package com.example.bankcards.entity.enums;
+
+public enum IdempotencyStatus {
+    PENDING, COMPLETED
+}
@@ -0,0 +1,5 @@
+package com.example.bankcards.entity.enums;
+
+public enum OutboxEventType {
+    TRANSFER_COMPLETED, CARD_BLOCKED, CARD_UNBLOCKED, CARD_STATUS_CHANGED
+}
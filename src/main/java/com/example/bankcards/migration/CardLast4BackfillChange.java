@@ -0,0 +1,76 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.EncryptionUtil;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills cards.card_last4 for cards created before the column existed. Rows are read and
+ * updated in chunks by id, each chunk committed separately, so the migration neither holds
+ * the whole table in memory nor keeps every row locked; a failed run resumes where it stopped.
+ */
+public class CardLast4BackfillChange implements CustomTaskChange {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // Миграция читает значения старого формата AES/ECB, поэтому намеренно использует EncryptionUtil
+    @Override
+    @SuppressWarnings("deprecation")
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, card_number FROM cards WHERE card_last4 IS NULL AND id > ? ORDER BY id LIMIT " + CHUNK_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE cards SET card_last4 = ? WHERE id = ?")) {
+
+            long lastId = Long.MIN_VALUE;
+            int rows;
+            do {
+                rows = 0;
+                select.setLong(1, lastId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong("id");
+                        String cardNumber = EncryptionUtil.decrypt(resultSet.getString("card_number"));
+                        update.setString(1, cardNumber.substring(cardNumber.length() - 4));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                update.executeBatch();
+                database.commit();
+            } while (rows == CHUNK_SIZE);
+        } catch (SQLException | liquibase.exception.DatabaseException e) {
+            throw new CustomChangeException("Failed to backfill cards.card_last4", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "cards.card_last4 backfilled";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
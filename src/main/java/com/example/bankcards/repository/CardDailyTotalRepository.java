@@ -0,0 +1,53 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardDailyTotalDto;
+import com.example.bankcards.dto.DailyVolumeDto;
+import com.example.bankcards.entity.CardDailyTotal;
+import com.example.bankcards.entity.CardDailyTotalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CardDailyTotalRepository extends JpaRepository<CardDailyTotal, CardDailyTotalId> {
+
+    /**
+     * Adds movements to the card's row for the day, creating the row on first use.
+     * Must run in the same transaction as the transfer it accounts for.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO card_daily_totals " +
+            "(card_id, total_date, debit_sum, credit_sum, debit_count, credit_count) " +
+            "VALUES (:cardId, :date, :debitSum, :creditSum, :debitCount, :creditCount) " +
+            "ON CONFLICT (card_id, total_date) DO UPDATE SET " +
+            "debit_sum = card_daily_totals.debit_sum + EXCLUDED.debit_sum, " +
+            "credit_sum = card_daily_totals.credit_sum + EXCLUDED.credit_sum, " +
+            "debit_count = card_daily_totals.debit_count + EXCLUDED.debit_count, " +
+            "credit_count = card_daily_totals.credit_count + EXCLUDED.credit_count", nativeQuery = true)
+    int add(@Param("cardId") Long cardId,
+            @Param("date") LocalDate date,
+            @Param("debitSum") BigDecimal debitSum,
+            @Param("creditSum") BigDecimal creditSum,
+            @Param("debitCount") long debitCount,
+            @Param("creditCount") long creditCount);
+
+    // Каждый перевод ровно один раз списывается с карты, поэтому объём системы — сумма списаний
+    @Query("SELECT new com.example.bankcards.dto.DailyVolumeDto(t.id.totalDate, SUM(t.debitSum), SUM(t.debitCount)) " +
+            "FROM CardDailyTotal t WHERE t.id.totalDate BETWEEN :from AND :to " +
+            "GROUP BY t.id.totalDate ORDER BY t.id.totalDate")
+    List<DailyVolumeDto> findDailyVolume(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.bankcards.dto.CardDailyTotalDto(t.id.cardId, t.id.totalDate, " +
+            "t.debitSum, t.creditSum, t.debitCount, t.creditCount) " +
+            "FROM CardDailyTotal t WHERE t.id.cardId = :cardId AND t.id.totalDate BETWEEN :from AND :to " +
+            "ORDER BY t.id.totalDate")
+    List<CardDailyTotalDto> findCardTotals(@Param("cardId") Long cardId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+}
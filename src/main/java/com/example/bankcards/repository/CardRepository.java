@@ -1,33 +1,142 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.CardStateChange;
+import com.example.bankcards.dto.CardView;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardRepository extends JpaRepository<Card, Long> {
-    Page<Card> findByUser(User user, Pageable pageable);
+public interface CardRepository extends JpaRepository<Card, Long>, CardSearchRepository {
+    String CARD_VIEW = "SELECT new com.example.bankcards.dto.CardView(c.id, c.cardLast4, c.cardHolder, " +
+            "c.expirationDate, c.status, c.balance, c.isBlocked) FROM Card c ";
+
     List<Card> findByUser(User user);
     List<Card> findByStatus(CardStatus status);
-    List<Card> findByExpirationDateBefore(LocalDate date);
+
+    // Проекции для чтения: только нужные колонки, сущности не попадают в контекст персистентности
+    @Query(value = CARD_VIEW + "WHERE c.user.id = :userId",
+            countQuery = "SELECT COUNT(c) FROM Card c WHERE c.user.id = :userId")
+    Page<CardView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(CARD_VIEW + "WHERE c.id = :id")
+    Optional<CardView> findViewById(@Param("id") Long id);
+
+    // Карта для изменения вместе с ролью вызывающего пользователя (null, если его нет) — один SELECT
+    @Query("SELECT c AS card, (SELECT u.role FROM User u WHERE u.id = :userId) AS callerRole " +
+            "FROM Card c WHERE c.id = :id")
+    Optional<CardForCaller> findForCaller(@Param("id") Long id, @Param("userId") Long userId);
+
+    interface CardForCaller {
+        Card getCard();
+        UserRole getCallerRole();
+    }
+
+    @Query(CARD_VIEW + "WHERE c.id = :id AND c.user.id = :userId")
+    Optional<CardView> findViewByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query(CARD_VIEW + "WHERE c.cardNumberHash = :cardNumberHash")
+    Optional<CardView> findViewByCardNumberHash(@Param("cardNumberHash") String cardNumberHash);
 
     @Query("SELECT c FROM Card c WHERE c.user.id = :userId AND c.status = 'ACTIVE'")
     List<Card> findActiveCardsByUserId(@Param("userId") Long userId);
 
-    Optional<Card> findByIdAndUser(Long id, User user);
+    @Query("SELECT c FROM Card c WHERE c.cardNumberHash IS NULL ORDER BY c.id")
+    List<Card> findWithoutCardNumberHash(Pageable pageable);
+
+    // Точечный UPDATE без версии: заполнение индекса не конфликтует с переводами по этой карте
+    @Modifying
+    @Query("UPDATE Card c SET c.cardNumberHash = :hash WHERE c.id = :id AND c.cardNumberHash IS NULL")
+    int setCardNumberHash(@Param("id") Long id, @Param("hash") String hash);
+
+    // nextval не откатывается вместе с транзакцией, поэтому зарезервированный блок не вернётся другому узлу
+    @Transactional
+    @Query(value = "SELECT nextval('card_number_block_seq')", nativeQuery = true)
+    long reserveCardNumberBlock();
+
+    // Условие status <> 'EXPIRED' повторяет WHERE частичного индекса idx_card_expiration_not_expired
+    @Query(value = "SELECT MIN(id) FROM cards WHERE expiration_date < :today AND status <> 'EXPIRED'", nativeQuery = true)
+    Long findMinExpiringId(@Param("today") LocalDate today);
+
+    @Query(value = "SELECT MAX(id) FROM cards WHERE expiration_date < :today AND status <> 'EXPIRED'", nativeQuery = true)
+    Long findMaxExpiringId(@Param("today") LocalDate today);
+
+    /**
+     * Marks cards with ids in [fromId, toId] whose expiration date has passed as EXPIRED in one statement
+     * and returns the changed rows. The version is bumped so concurrent optimistic updates of these cards fail.
+     */
+    @Query(value = "UPDATE cards SET status = 'EXPIRED', version = version + 1 " +
+            "WHERE id BETWEEN :fromId AND :toId AND expiration_date < :today AND status <> 'EXPIRED' " +
+            "RETURNING id AS id, user_id AS userId, status AS status, is_blocked AS isBlocked, version AS version", nativeQuery = true)
+    List<CardStateChange> expireCards(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("today") LocalDate today);
+
+    // Массовые операции повторяют правила validateCardForBlocking / validateCardForUnblocking в WHERE:
+    // неподходящие карты не меняются и не попадают в RETURNING
+    @Query(value = "UPDATE cards SET is_blocked = true, " +
+            "status = CASE WHEN status = 'ACTIVE' THEN 'BLOCKED' ELSE status END, version = version + 1 " +
+            "WHERE id = ANY(:ids) AND is_blocked = false AND expiration_date >= :today " +
+            "RETURNING id AS id, user_id AS userId, status AS status, is_blocked AS isBlocked, version AS version", nativeQuery = true)
+    List<CardStateChange> blockCards(@Param("ids") Long[] ids, @Param("today") LocalDate today);
+
+    @Query(value = "UPDATE cards SET is_blocked = false, " +
+            "status = CASE WHEN expiration_date >= :today THEN 'ACTIVE' ELSE 'EXPIRED' END, version = version + 1 " +
+            "WHERE id = ANY(:ids) AND is_blocked = true " +
+            "RETURNING id AS id, user_id AS userId, status AS status, is_blocked AS isBlocked, version AS version", nativeQuery = true)
+    List<CardStateChange> unblockCards(@Param("ids") Long[] ids, @Param("today") LocalDate today);
+
+    @Query(value = "UPDATE cards SET status = :status, version = version + 1 " +
+            "WHERE id = ANY(:ids) AND status <> :status " +
+            "RETURNING id AS id, user_id AS userId, status AS status, is_blocked AS isBlocked, version AS version", nativeQuery = true)
+    List<CardStateChange> updateCardsStatus(@Param("ids") Long[] ids, @Param("status") String status);
+
+    @Query("SELECT MIN(c.id) FROM Card c")
+    Long findMinId();
+
+    @Query("SELECT MAX(c.id) FROM Card c")
+    Long findMaxId();
+
+    /**
+     * Loads and row-locks (SELECT ... FOR UPDATE) the given cards in ascending id order,
+     * so concurrent transfers over the same cards always acquire their locks in the same order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT c FROM Card c WHERE c.user.username = :username")
-    Page<Card> findByUsername(@Param("username") String username, Pageable pageable);
+    /**
+     * Debits the card in a single statement and returns its owner. Returns empty if the card does not
+     * exist, belongs to another owner (when {@code ownerId} is given), is not active or blocked, or lacks funds.
+     */
+    @Query(value = "UPDATE cards SET balance = balance - :amount, version = version + 1 " +
+            "WHERE id = :id AND (CAST(:ownerId AS BIGINT) IS NULL OR user_id = :ownerId) " +
+            "AND status = 'ACTIVE' AND is_blocked = false AND balance >= :amount " +
+            "RETURNING user_id", nativeQuery = true)
+    Optional<Long> debitBalance(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("amount") BigDecimal amount);
 
-    boolean existsByEncryptedCardNumber(String encryptedCardNumber);
+    /**
+     * Credits the card in a single statement and returns its owner. Returns empty if the card does not
+     * exist, belongs to another owner (when {@code ownerId} is given), or is not active or blocked.
+     */
+    @Query(value = "UPDATE cards SET balance = balance + :amount, version = version + 1 " +
+            "WHERE id = :id AND (CAST(:ownerId AS BIGINT) IS NULL OR user_id = :ownerId) " +
+            "AND status = 'ACTIVE' AND is_blocked = false " +
+            "RETURNING user_id", nativeQuery = true)
+    Optional<Long> creditBalance(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("amount") BigDecimal amount);
 }
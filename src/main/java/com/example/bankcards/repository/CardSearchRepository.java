@@ -0,0 +1,19 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardView;
+import com.example.bankcards.entity.Card;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CardSearchRepository {
+
+    /**
+     * Returns at most {@code limit} cards matching the specification in ascending id order,
+     * selecting only the columns of {@link CardView} instead of loading entities.
+     */
+    List<CardView> searchCards(Specification<Card> specification, int limit);
+
+    // Только id в порядке возрастания — для массовых операций по фильтру
+    List<Long> findCardIds(Specification<Card> specification, int limit);
+}
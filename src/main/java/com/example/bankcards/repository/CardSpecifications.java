@@ -0,0 +1,54 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of the admin card search. Each factory returns null for a missing filter value,
+ * which {@link Specification#and} skips.
+ */
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+    }
+
+    public static Specification<Card> idAfter(Long afterId) {
+        return afterId == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    public static Specification<Card> hasStatus(CardStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Card> isBlocked(Boolean isBlocked) {
+        return isBlocked == null ? null : (root, query, cb) -> cb.equal(root.get("isBlocked"), isBlocked);
+    }
+
+    public static Specification<Card> belongsToUser(Long userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Card> expiresFrom(LocalDate from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expirationDate"), from);
+    }
+
+    public static Specification<Card> expiresTo(LocalDate to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("expirationDate"), to);
+    }
+
+    // upper(card_holder) LIKE 'PREFIX%' обслуживается индексом idx_card_holder_prefix
+    public static Specification<Card> cardHolderStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = escapeLike(prefix.trim().toUpperCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.upper(root.get("cardHolder")), pattern, '\\');
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
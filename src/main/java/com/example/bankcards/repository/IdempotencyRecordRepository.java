@@ -0,0 +1,61 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.entity.IdempotencyRecordId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordId> {
+
+    /**
+     * Claims the key for the caller. Returns 0 if another request (possibly on another node)
+     * has already claimed it; the primary key makes the claim race-free. A PENDING claim created
+     * before {@code staleBefore} belongs to a request whose node died mid-transfer and is taken over,
+     * but only by the same payload: the stored payload is kept and only {@code created_at} is reset.
+     * A retry with a different payload gets 0 and fails the payload comparison on replay.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys " +
+            "(user_id, idempotency_key, status, from_card_id, to_card_id, amount, description, created_at) " +
+            "VALUES (:userId, :key, 'PENDING', :fromCardId, :toCardId, :amount, :description, :createdAt) " +
+            "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET created_at = EXCLUDED.created_at " +
+            "WHERE idempotency_keys.status = 'PENDING' AND idempotency_keys.created_at < :staleBefore " +
+            "AND idempotency_keys.from_card_id = EXCLUDED.from_card_id " +
+            "AND idempotency_keys.to_card_id = EXCLUDED.to_card_id " +
+            "AND idempotency_keys.amount = EXCLUDED.amount " +
+            "AND idempotency_keys.description IS NOT DISTINCT FROM EXCLUDED.description",
+            nativeQuery = true)
+    int reserve(@Param("userId") Long userId,
+                @Param("key") String key,
+                @Param("fromCardId") Long fromCardId,
+                @Param("toCardId") Long toCardId,
+                @Param("amount") BigDecimal amount,
+                @Param("description") String description,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Marks the claim made at {@code reservedAt} as completed. Returns 0 if the claim has been taken over.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.example.bankcards.entity.enums.IdempotencyStatus.COMPLETED, r.completedAt = :completedAt " +
+            "WHERE r.id = :id AND r.createdAt = :reservedAt")
+    int complete(@Param("id") IdempotencyRecordId id,
+                 @Param("reservedAt") LocalDateTime reservedAt,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.createdAt = :reservedAt")
+    int release(@Param("id") IdempotencyRecordId id, @Param("reservedAt") LocalDateTime reservedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardBalanceDrift;
+import com.example.bankcards.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Rolls every card's checkpoint forward to {@code coveredUntil} by adding the entries
+     * written since its previous checkpoint. Cards without new entries keep their checkpoint.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO card_balance_checkpoints (card_id, balance, covered_until, created_at) " +
+            "SELECT e.card_id, COALESCE(cp.balance, 0) + " +
+            "SUM(CASE WHEN e.entry_type = 'DEBIT' THEN -e.amount ELSE e.amount END), :coveredUntil, :createdAt " +
+            "FROM ledger_entries e " +
+            "JOIN cards c ON c.id = e.card_id " +
+            "LEFT JOIN card_balance_checkpoints cp ON cp.card_id = e.card_id " +
+            "WHERE e.created_at >= COALESCE(cp.covered_until, CAST('-infinity' AS TIMESTAMP)) " +
+            "AND e.created_at < :coveredUntil " +
+            "GROUP BY e.card_id, cp.balance " +
+            "ON CONFLICT (card_id) DO UPDATE SET balance = EXCLUDED.balance, " +
+            "covered_until = EXCLUDED.covered_until, created_at = EXCLUDED.created_at", nativeQuery = true)
+    int advanceCheckpoints(@Param("coveredUntil") LocalDateTime coveredUntil,
+                           @Param("createdAt") LocalDateTime createdAt);
+
+    // Баланс по журналу = контрольная точка + записи после неё; возвращаются только расходящиеся карты
+    @Query(value = "SELECT c.id AS cardId, c.balance AS balance, " +
+            "COALESCE(cp.balance, 0) + COALESCE(SUM(CASE WHEN e.entry_type = 'DEBIT' THEN -e.amount ELSE e.amount END), 0) AS ledgerBalance " +
+            "FROM cards c " +
+            "LEFT JOIN card_balance_checkpoints cp ON cp.card_id = c.id " +
+            "LEFT JOIN ledger_entries e ON e.card_id = c.id " +
+            "AND e.created_at >= COALESCE(cp.covered_until, CAST('-infinity' AS TIMESTAMP)) " +
+            "WHERE c.id BETWEEN :fromCardId AND :toCardId " +
+            "GROUP BY c.id, c.balance, cp.balance " +
+            "HAVING c.balance <> COALESCE(cp.balance, 0) + " +
+            "COALESCE(SUM(CASE WHEN e.entry_type = 'DEBIT' THEN -e.amount ELSE e.amount END), 0) " +
+            "ORDER BY c.id", nativeQuery = true)
+    List<CardBalanceDrift> findBalanceDrifts(@Param("fromCardId") Long fromCardId, @Param("toCardId") Long toCardId);
+}
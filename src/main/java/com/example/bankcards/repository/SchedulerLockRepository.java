@@ -0,0 +1,25 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Берёт свободную или просроченную аренду либо продлевает свою; время берётся из БД, а не с часов узла
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_by, locked_until) " +
+            "VALUES (:name, :owner, LOCALTIMESTAMP + make_interval(secs => :leaseSeconds)) " +
+            "ON CONFLICT (name) DO UPDATE SET locked_by = EXCLUDED.locked_by, locked_until = EXCLUDED.locked_until " +
+            "WHERE scheduler_locks.locked_until < LOCALTIMESTAMP OR scheduler_locks.locked_by = :owner", nativeQuery = true)
+    int tryLock(@Param("name") String name, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks SET locked_until = LOCALTIMESTAMP WHERE name = :name AND locked_by = :owner",
+            nativeQuery = true)
+    int unlock(@Param("name") String name, @Param("owner") String owner);
+}
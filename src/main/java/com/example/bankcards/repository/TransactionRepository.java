@@ -1,24 +1,57 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Transaction;
-import com.example.bankcards.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    @Query("SELECT t FROM Transaction t WHERE t.fromCard.user = :user OR t.toCard.user = :user")
-    Page<Transaction> findByUser(@Param("user") User user, Pageable pageable);
+    @Query(value = "SELECT h.* FROM (" +
+            "(SELECT t.* FROM transactions t JOIN cards c ON c.id = t.from_card_id " +
+            "WHERE c.user_id = :userId AND (t.timestamp, t.id) < (:beforeTimestamp, :beforeId) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit) " +
+            "UNION " +
+            "(SELECT t.* FROM transactions t JOIN cards c ON c.id = t.to_card_id " +
+            "WHERE c.user_id = :userId AND (t.timestamp, t.id) < (:beforeTimestamp, :beforeId) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)" +
+            ") h ORDER BY h.timestamp DESC, h.id DESC LIMIT :limit", nativeQuery = true)
+    List<Transaction> findUserHistory(@Param("userId") Long userId,
+                                      @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                      @Param("beforeId") Long beforeId,
+                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT h.* FROM (" +
+            "(SELECT t.* FROM transactions t " +
+            "WHERE t.from_card_id = :cardId AND (t.timestamp, t.id) < (:beforeTimestamp, :beforeId) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit) " +
+            "UNION " +
+            "(SELECT t.* FROM transactions t " +
+            "WHERE t.to_card_id = :cardId AND (t.timestamp, t.id) < (:beforeTimestamp, :beforeId) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)" +
+            ") h ORDER BY h.timestamp DESC, h.id DESC LIMIT :limit", nativeQuery = true)
+    List<Transaction> findCardHistory(@Param("cardId") Long cardId,
+                                      @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                      @Param("beforeId") Long beforeId,
+                                      @Param("limit") int limit);
 
     @Query("SELECT t FROM Transaction t WHERE t.fromCard.id = :cardId OR t.toCard.id = :cardId")
     List<Transaction> findByCardId(@Param("cardId") Long cardId);
 
-    List<Transaction> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
+    // Строки читаются курсором порциями по fetch size, а не загружаются в память целиком
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.timestamp >= :from AND t.timestamp < :to ORDER BY t.timestamp, t.id")
+    Stream<Transaction> streamByTimestampRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -3,8 +3,11 @@ package com.example.bankcards.repository;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     List<User> findByRole(UserRole role);
     List<User> findByActiveTrue();
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.active AS active, " +
+            "u.tokenVersionChangedAt AS changedAt FROM User u WHERE u.tokenVersionChangedAt > :since")
+    List<TokenState> findTokenStatesChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.active AS active, " +
+            "u.tokenVersionChangedAt AS changedAt FROM User u WHERE u.id = :id")
+    Optional<TokenState> findTokenStateById(@Param("id") Long id);
+
+    @Query("SELECT MAX(u.tokenVersionChangedAt) FROM User u")
+    LocalDateTime findLatestTokenVersionChange();
+
+    interface TokenState {
+        Long getId();
+        Integer getTokenVersion();
+        Boolean getActive();
+        LocalDateTime getChangedAt();
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.CardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CardExpiryJob {
+
+    private final CardService cardService;
+
+    // Запускается на каждом узле; прогон выполняет тот, кто получил аренду card-expiry
+    @Scheduled(cron = "${cards.expiry.cron:0 10 0 * * *}")
+    public void expireCards() {
+        cardService.checkExpiredCards();
+    }
+}
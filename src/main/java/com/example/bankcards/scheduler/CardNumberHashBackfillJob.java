@@ -0,0 +1,26 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.CardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CardNumberHashBackfillJob {
+
+    private final CardService cardService;
+
+    @Value("${card-number.hash-backfill.batch-size:500}")
+    private int batchSize;
+
+    // Каждая пачка — отдельная короткая транзакция; когда карт без хэша не осталось, запуск стоит один запрос
+    @Scheduled(fixedDelayString = "${card-number.hash-backfill.interval-ms:60000}")
+    public void backfillCardNumberHashes() {
+        int processed;
+        do {
+            processed = cardService.backfillCardNumberHashes(batchSize);
+        } while (processed == batchSize);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyCleanupJob {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        idempotencyService.purgeExpiredKeys();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class LedgerJob {
+
+    private final LedgerService ledgerService;
+
+    // Запускаются на каждом узле; прогон выполняет тот, кто получил аренду ledger-checkpoint / ledger-reconciliation
+    @Scheduled(cron = "${ledger.checkpoint.cron:0 0 2 * * *}")
+    public void advanceCheckpoints() {
+        ledgerService.advanceCheckpoints();
+    }
+
+    @Scheduled(cron = "${ledger.reconciliation.cron:0 0 4 * * *}")
+    public void reconcile() {
+        ledgerService.reconcile();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OutboxRelayJob {
+
+    private final OutboxService outboxService;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    // Полная пачка означает, что в очереди могут остаться события — забираем следующую сразу, но не больше
+    // maxBatchesPerRun за запуск: при непрерывном потоке событий запуск всё равно завершается.
+    // У relay свой поток планировщика, поэтому он не задерживает остальные задания
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}", scheduler = "outboxRelayScheduler")
+    public void relay() {
+        int batches = 0;
+        int relayed;
+        do {
+            relayed = outboxService.relayBatch();
+            batches++;
+        } while (relayed == batchSize && batches < maxBatchesPerRun);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.security.TokenVersionCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRefreshJob {
+
+    private final TokenVersionCache tokenVersionCache;
+
+    @Scheduled(fixedDelayString = "${jwt.token-versions.refresh-interval-ms:10000}")
+    public void refreshTokenVersions() {
+        tokenVersionCache.refresh();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.TransactionPartitionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionJob {
+
+    private final TransactionPartitionService transactionPartitionService;
+
+    // Первый запуск — сразу после старта, поэтому секции на ближайшие месяцы есть всегда.
+    // Оба задания запускаются на каждом узле; выполняет тот, кто получил аренду задания.
+    // У каждого свой поток планировщика: долгая выгрузка архива не задерживает создание секций
+    @Scheduled(fixedDelayString = "${transactions.partitions.check-interval-ms:3600000}",
+            scheduler = "transactionPartitionScheduler")
+    public void createUpcomingPartitions() {
+        transactionPartitionService.createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${transactions.archive.cron:0 30 3 * * *}", scheduler = "transactionArchiveScheduler")
+    public void archiveExpiredPartitions() throws IOException {
+        transactionPartitionService.archiveExpiredPartitions();
+    }
+}
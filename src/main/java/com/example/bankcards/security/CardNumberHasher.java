@@ -0,0 +1,46 @@
+package com.example.bankcards.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Keyed HMAC of a card number used as a blind index: equal numbers give equal hashes,
+ * so uniqueness checks and lookups by number do not depend on how the number is encrypted.
+ */
+@Component
+public class CardNumberHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${card-number.hmac-key}")
+    private String hmacKey;
+
+    // Mac не потокобезопасен, а его создание заметно дороже самого вычисления
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::createMac);
+
+    public String hash(String cardNumber) {
+        byte[] digest = mac.get().doFinal(normalize(cardNumber).getBytes(StandardCharsets.US_ASCII));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    // Номер может прийти с пробелами или дефисами между группами цифр
+    private String normalize(String cardNumber) {
+        return cardNumber.replaceAll("[\\s-]", "");
+    }
+
+    private Mac createMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(new SecretKeySpec(hmacKey.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize card number HMAC", e);
+        }
+    }
+}
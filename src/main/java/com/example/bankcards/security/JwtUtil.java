@@ -1,11 +1,11 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.entity.enums.UserRole;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -17,6 +17,10 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "tv";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -48,15 +52,27 @@ public class JwtUtil {
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public String generateToken(UserDetails userDetails) {
+    // id, роль и версия токена в claims позволяют JwtAuthFilter не читать пользователя из БД
+    public String generateToken(UserDetailsImpl userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userDetails.getId());
+        claims.put(ROLE_CLAIM, userDetails.getRole().name());
+        claims.put(TOKEN_VERSION_CLAIM, userDetails.getTokenVersion());
         return createToken(claims, userDetails.getUsername());
     }
 
+    // Подпись и срок проверяются при разборе; null — токен выдан до появления этих claims
+    public UserDetailsImpl extractUserDetails(String token) {
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return null;
+        }
+        return new UserDetailsImpl(userId.longValue(), claims.getSubject(), UserRole.valueOf(role), tokenVersion.intValue());
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -67,8 +83,4 @@ public class JwtUtil {
                 .compact();
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
 }
@@ -0,0 +1,122 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Current token version and active flag of users seen by this node, checked by {@link JwtAuthFilter}
+ * instead of reading the users table on each request. A user is looked up once on first use; changes
+ * made on this node are applied after commit, changes made on other nodes are picked up by
+ * TokenVersionRefreshJob, which reads only users changed since its previous poll. Entries expire
+ * after {@code jwt.token-versions.ttl}, which also bounds how long a user deleted on another node is
+ * still accepted. Unknown user ids are cached as missing for {@code jwt.token-versions.negative-ttl}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.token-versions.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${jwt.token-versions.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${jwt.token-versions.negative-ttl:1m}")
+    private Duration negativeTtl;
+
+    // Покрывает транзакции, закоммиченные позже более новых изменений, и расхождение часов узлов
+    @Value("${jwt.token-versions.refresh-overlap:1m}")
+    private Duration refreshOverlap;
+
+    private Cache<Long, TokenState> states;
+    private Cache<Long, Boolean> missingUsers;
+
+    // Самое позднее изменение, уже прочитанное из БД
+    private volatile LocalDateTime watermark;
+
+    private record TokenState(int version, boolean active) {
+    }
+
+    @PostConstruct
+    void init() {
+        states = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+        missingUsers = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        watermark = userRepository.findLatestTokenVersionChange();
+    }
+
+    public void refresh() {
+        LocalDateTime latest = watermark;
+        if (latest == null) {
+            watermark = userRepository.findLatestTokenVersionChange();
+            return;
+        }
+
+        for (UserRepository.TokenState changed : userRepository.findTokenStatesChangedSince(latest.minus(refreshOverlap))) {
+            // Обновляются только пользователи, уже проверявшиеся на этом узле; остальные прочитаются при первом запросе
+            states.asMap().computeIfPresent(changed.getId(), (id, current) -> newer(current, toState(changed)));
+            if (changed.getChangedAt().isAfter(latest)) {
+                latest = changed.getChangedAt();
+            }
+        }
+        watermark = latest;
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        TokenState state = states.getIfPresent(userId);
+        if (state == null) {
+            if (missingUsers.getIfPresent(userId) != null) {
+                return false;
+            }
+            // Запрос идёт вне блокировок кэша; одновременные промахи по одному пользователю могут прочитать его дважды
+            Optional<TokenState> loaded = userRepository.findTokenStateById(userId).map(TokenVersionCache::toState);
+            if (loaded.isEmpty()) {
+                missingUsers.put(userId, Boolean.TRUE);
+                return false;
+            }
+            state = states.asMap().merge(userId, loaded.get(), TokenVersionCache::newer);
+        }
+        return state.active() && state.version() == tokenVersion;
+    }
+
+    public void update(Long userId, int tokenVersion, boolean active) {
+        Runnable apply = () -> states.asMap().merge(userId, new TokenState(tokenVersion, active), TokenVersionCache::newer);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    // Версия только растёт: запоздавшее чтение не откатывает уже применённое изменение
+    private static TokenState newer(TokenState current, TokenState updated) {
+        return updated.version() >= current.version() ? updated : current;
+    }
+
+    private static TokenState toState(UserRepository.TokenState state) {
+        return new TokenState(state.getTokenVersion(), state.getActive());
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.UserRole;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,15 +16,29 @@ public class UserDetailsImpl implements UserDetails {
     private final Long id;
     private final String username;
     private final String password;
+    private final UserRole role;
+    private final int tokenVersion;
     private final Collection<? extends GrantedAuthority> authorities;
 
     public UserDetailsImpl(User user) {
         this.id = user.getId();
         this.username = user.getUsername();
         this.password = user.getPassword(); // берем зашифрованный пароль из БД
+        this.role = user.getRole();
+        this.tokenVersion = user.getTokenVersion();
         this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
 
+    // Пользователь из проверенного JWT — без пароля и без обращения к БД
+    public UserDetailsImpl(Long id, String username, UserRole role, int tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.password = null;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
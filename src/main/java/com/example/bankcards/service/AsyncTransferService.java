@@ -0,0 +1,9 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+
+public interface AsyncTransferService {
+    AsyncTransferResponse submit(Long userId, TransferRequest request);
+    AsyncTransferResponse getStatus(Long userId, String transferId);
+}
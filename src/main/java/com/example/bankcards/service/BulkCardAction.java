@@ -0,0 +1,8 @@
+package com.example.bankcards.service;
+
+public enum BulkCardAction {
+    BLOCK,
+    UNBLOCK,
+    // Установка статуса из запроса, как PATCH /cards/{id}/status
+    SET_STATUS
+}
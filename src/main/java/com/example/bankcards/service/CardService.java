@@ -1,8 +1,14 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.BlockCardResponse;
+import com.example.bankcards.dto.BulkCardCreateResponse;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
 import com.example.bankcards.dto.CardCreateRequest;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardExpiryReport;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResponse;
 import com.example.bankcards.entity.enums.CardStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,14 +17,17 @@ import java.util.List;
 
 public interface CardService {
     Page<CardDto> getUserCards(Long userId, Pageable pageable);
-    Page<CardDto> getUserCardsByUsername(String username, Pageable pageable);
-    List<CardDto> getAllCards();
+    CardSearchResponse searchCards(CardSearchFilter filter, Long afterId, int size);
     CardDto getCardById(Long id);
     CardDto getUserCardById(Long userId, Long cardId);
+    CardDto findCardByNumber(String cardNumber);
     CardDto createCard(CardCreateRequest request);
+    BulkCardCreateResponse bulkCreateCards(List<CardCreateRequest> requests);
+    BulkCardStatusResponse bulkUpdateCards(BulkCardStatusRequest request);
     CardDto updateCardStatus(Long id, CardStatus status);
     void deleteCard(Long id);
-    void checkExpiredCards();
+    CardExpiryReport checkExpiredCards();
+    int backfillCardNumberHashes(int batchSize);
     BlockCardResponse blockCard(Long cardId, Long userId);
     BlockCardResponse unblockCard(Long cardId, Long userId);
 }
\ No newline at end of file
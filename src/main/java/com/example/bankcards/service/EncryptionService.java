@@ -0,0 +1,9 @@
+package com.example.bankcards.service;
+
+import java.util.List;
+
+public interface EncryptionService {
+    String encrypt(String data);
+    String decrypt(String encryptedData);
+    List<String> decryptAll(List<String> encryptedData);
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResponse;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    TransferResponse execute(Long userId, String idempotencyKey, TransferRequest request, Supplier<TransferResponse> transfer);
+    int purgeExpiredKeys();
+}
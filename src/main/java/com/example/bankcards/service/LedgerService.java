@@ -0,0 +1,8 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ReconciliationReport;
+
+public interface LedgerService {
+    int advanceCheckpoints();
+    ReconciliationReport reconcile();
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events. An exception rolls the batch back and it is
+ * delivered again on the next run, so sinks must tolerate duplicates.
+ */
+public interface OutboxEventSink {
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDailyTotalDto;
+import com.example.bankcards.dto.DailyVolumeDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StatisticsService {
+    List<DailyVolumeDto> getDailyVolume(LocalDate from, LocalDate to);
+    List<CardDailyTotalDto> getCardDailyTotals(Long cardId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.service;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface TransactionPartitionService {
+    List<String> createUpcomingPartitions();
+    List<String> archiveExpiredPartitions() throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransactionHistoryResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface TransactionService {
+    TransactionHistoryResponse getUserHistory(Long userId, LocalDateTime beforeTimestamp, Long beforeId, int size);
+    TransactionHistoryResponse getCardHistory(Long userId, Long cardId, LocalDateTime beforeTimestamp, Long beforeId, int size);
+    void exportTransactions(LocalDateTime from, LocalDateTime to, TransactionExportFormat format, OutputStream out) throws IOException;
+}
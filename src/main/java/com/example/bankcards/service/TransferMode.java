@@ -0,0 +1,5 @@
+package com.example.bankcards.service;
+
+public enum TransferMode {
+    LOCKING, ATOMIC, OPTIMISTIC
+}
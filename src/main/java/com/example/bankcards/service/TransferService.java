@@ -1,8 +1,12 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferResponse;
 import com.example.bankcards.dto.TransferRequest;
 
+import java.util.List;
+
 public interface TransferService {
     void transferBetweenUserCards(Long userId, TransferRequest request);
     void transferBetweenCards(TransferRequest request);
+    BatchTransferResponse transferBatch(List<TransferRequest> requests);
 }
@@ -0,0 +1,152 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.TransferQueueFullException;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.TransferService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues transfers into partitions keyed by the source card. Each partition has exactly one worker,
+ * so all debits of a card are applied one after another by the same thread instead of competing
+ * for the card's row lock on request threads. Only the source card has a single writer: the credit
+ * to the destination card still takes that card's row lock and may wait for other partitions and
+ * for synchronous transfers.
+ * <p>
+ * Queues and statuses live in the memory of the node that accepted the transfer. The status is
+ * visible only on that node, and transfers still queued when the node stops after the shutdown
+ * grace period are dropped and logged.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private static final String PENDING = "PENDING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private final TransferService transferService;
+
+    @Value("${transfer.async.partitions:8}")
+    private int partitionCount;
+
+    @Value("${transfer.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${transfer.async.status-ttl:1h}")
+    private Duration statusTtl;
+
+    @Value("${transfer.async.status-cache-size:100000}")
+    private long statusCacheSize;
+
+    @Value("${transfer.async.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    private ThreadPoolExecutor[] partitions;
+
+    private Cache<String, AsyncTransfer> transfers;
+
+    @PostConstruct
+    void start() {
+        partitions = new ThreadPoolExecutor[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            String threadName = "transfer-partition-" + i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> new Thread(runnable, threadName));
+        }
+        transfers = Caffeine.newBuilder()
+                .maximumSize(statusCacheSize)
+                .expireAfterWrite(statusTtl)
+                .build();
+    }
+
+    // Очереди дорабатываются в пределах shutdownTimeout на все секции; что не успело — отбрасывается с записью в лог,
+    // хотя клиент уже получил 202
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        int dropped = 0;
+        for (ThreadPoolExecutor partition : partitions) {
+            if (!partition.awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                dropped += partition.shutdownNow().size();
+            }
+        }
+        if (dropped > 0) {
+            log.error("Dropped {} queued async transfers on shutdown after {}", dropped, shutdownTimeout);
+        }
+    }
+
+    @Override
+    public AsyncTransferResponse submit(Long userId, TransferRequest request) {
+        String transferId = UUID.randomUUID().toString();
+        AsyncTransferResponse pending = new AsyncTransferResponse(transferId, PENDING, request.getFromCardId(),
+                request.getToCardId(), request.getAmount(), request.getDescription(), null, LocalDateTime.now(), null);
+        transfers.put(transferId, new AsyncTransfer(userId, pending));
+
+        try {
+            partitionOf(request.getFromCardId()).execute(() -> apply(transferId, userId, request, pending));
+        } catch (RejectedExecutionException e) {
+            transfers.invalidate(transferId);
+            throw new TransferQueueFullException("Transfer queue is full, retry later");
+        }
+        return pending;
+    }
+
+    @Override
+    public AsyncTransferResponse getStatus(Long userId, String transferId) {
+        AsyncTransfer transfer = transfers.getIfPresent(transferId);
+        if (transfer == null || !transfer.userId().equals(userId)) {
+            throw new ResourceNotFoundException("Transfer not found with id: " + transferId);
+        }
+        return transfer.response();
+    }
+
+    // Та же логика, что и у синхронного POST /cards/transfer: проверки и перевод выполняет TransferService
+    private void apply(String transferId, Long userId, TransferRequest request, AsyncTransferResponse pending) {
+        String status = COMPLETED;
+        String message = null;
+        try {
+            transferService.transferBetweenUserCards(userId, request);
+        } catch (ResourceNotFoundException | InsufficientFundsException | IllegalStateException | SecurityException e) {
+            status = FAILED;
+            message = e.getMessage();
+        } catch (RuntimeException e) {
+            log.error("Async transfer {} failed", transferId, e);
+            status = FAILED;
+            message = "Transfer failed";
+        }
+
+        transfers.put(transferId, new AsyncTransfer(userId, new AsyncTransferResponse(transferId, status,
+                pending.getFromCardId(), pending.getToCardId(), pending.getAmount(), pending.getDescription(),
+                message, pending.getSubmittedAt(), LocalDateTime.now())));
+    }
+
+    private ThreadPoolExecutor partitionOf(Long cardId) {
+        return partitions[Math.floorMod(cardId.hashCode(), partitions.length)];
+    }
+
+    private record AsyncTransfer(Long userId, AsyncTransferResponse response) {
+    }
+}
@@ -10,13 +10,13 @@ import com.example.bankcards.exception.AuthenticationException;
 import com.example.bankcards.exception.UserExistException;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.security.UserDetailsImpl;
 import com.example.bankcards.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -38,13 +38,10 @@ public class AuthServiceImpl implements AuthService {
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
             String jwt = jwtUtil.generateToken(userDetails);
 
-            User user = userRepository.findByUsername(request.getUsername())
-                    .orElseThrow(() -> new AuthenticationException("User not found after authentication"));
-
-            return new AuthResponse(jwt, user.getUsername(), user.getRole().name());
+            return new AuthResponse(jwt, userDetails.getUsername(), userDetails.getRole().name());
         } catch (org.springframework.security.core.AuthenticationException e) {
             throw new AuthenticationException("Authentication failed: " + e.getMessage());
         }
@@ -0,0 +1,118 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.CardDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Read cache of {@link CardDto} by card id and of users' card pages. Pages are grouped by owner, so
+ * evicting a user's pages is a single removal. Every write path evicts the cards it changed together
+ * with their owners, taken from the card rows; eviction is repeated after commit so that a reader
+ * that loaded the old row while the writer's transaction was open cannot keep it. The TTL bounds
+ * staleness from changes made outside the application.
+ */
+@Component
+@RequiredArgsConstructor
+class CardCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cards.cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${cards.cache.max-users:10000}")
+    private long maxUsers;
+
+    @Value("${cards.cache.ttl:30s}")
+    private Duration ttl;
+
+    private static final int MAX_PAGES_PER_USER = 16;
+
+    private Cache<Long, CardDto> cards;
+    // Страницы пользователя живут не дольше записи о нём: TTL отсчитывается от создания карты страниц
+    private Cache<Long, ConcurrentMap<Pageable, Page<CardDto>>> userPages;
+
+    @PostConstruct
+    void initCaches() {
+        cards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        userPages = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "cards.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, userPages, "cards.user-pages");
+    }
+
+    public CardDto getCard(Long cardId, Supplier<CardDto> loader) {
+        return cards.get(cardId, id -> loader.get());
+    }
+
+    public Page<CardDto> getUserCards(Long userId, Pageable pageable, Supplier<Page<CardDto>> loader) {
+        ConcurrentMap<Pageable, Page<CardDto>> pages = userPages.get(userId, id -> new ConcurrentHashMap<>());
+        Page<CardDto> page = pages.get(pageable);
+        if (page == null) {
+            page = loader.get();
+            // Число разных страниц одного пользователя ограничено, остальные читаются мимо кэша
+            if (pages.size() < MAX_PAGES_PER_USER) {
+                pages.putIfAbsent(pageable, page);
+            }
+        }
+        return page;
+    }
+
+    public void evictCard(Long cardId, Long userId) {
+        evictNowAndAfterCommit(() -> {
+            cards.invalidate(cardId);
+            evictUserPages(userId);
+        });
+    }
+
+    // cardOwners: id карты -> id её владельца
+    public void evictCards(Map<Long, Long> cardOwners) {
+        evictNowAndAfterCommit(() -> {
+            cards.invalidateAll(cardOwners.keySet());
+            userPages.invalidateAll(cardOwners.values());
+        });
+    }
+
+    public void evictUserCards(Long userId) {
+        evictNowAndAfterCommit(() -> evictUserPages(userId));
+    }
+
+    private void evictUserPages(Long userId) {
+        userPages.invalidate(userId);
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.CardDailyTotalId;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.repository.CardDailyTotalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps card_daily_totals in step with newly written transactions. Called inside the
+ * transfer's own transaction, so a rolled back transfer leaves no trace in the rollup.
+ */
+@Component
+@RequiredArgsConstructor
+class CardDailyTotalsRecorder {
+
+    private static final Comparator<CardDailyTotalId> ROW_ORDER = Comparator
+            .comparing(CardDailyTotalId::getCardId)
+            .thenComparing(CardDailyTotalId::getTotalDate);
+
+    private final CardDailyTotalRepository cardDailyTotalRepository;
+
+    public void record(List<Transaction> transactions) {
+        // Движения по одной карте за день сворачиваются в один upsert; строки обновляются
+        // в порядке возрастания card_id — так же, как блокируются сами карты
+        Map<CardDailyTotalId, Movements> rows = new TreeMap<>(ROW_ORDER);
+        for (Transaction transaction : transactions) {
+            if (transaction.getFromCard() != null) {
+                rows.computeIfAbsent(rowId(transaction.getFromCard().getId(), transaction), id -> new Movements())
+                        .debit(transaction.getAmount());
+            }
+            rows.computeIfAbsent(rowId(transaction.getToCard().getId(), transaction), id -> new Movements())
+                    .credit(transaction.getAmount());
+        }
+
+        rows.forEach((id, movements) -> cardDailyTotalRepository.add(id.getCardId(), id.getTotalDate(),
+                movements.debitSum, movements.creditSum, movements.debitCount, movements.creditCount));
+    }
+
+    private CardDailyTotalId rowId(Long cardId, Transaction transaction) {
+        return new CardDailyTotalId(cardId, transaction.getTimestamp().toLocalDate());
+    }
+
+    private static class Movements {
+        private BigDecimal debitSum = BigDecimal.ZERO;
+        private BigDecimal creditSum = BigDecimal.ZERO;
+        private long debitCount;
+        private long creditCount;
+
+        void debit(BigDecimal amount) {
+            debitSum = debitSum.add(amount);
+            debitCount++;
+        }
+
+        void credit(BigDecimal amount) {
+            creditSum = creditSum.add(amount);
+            creditCount++;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out card numbers from blocks of account numbers reserved in card_number_block_seq.
+ * Blocks never overlap between nodes and the permutation is a bijection, so issued numbers
+ * are unique without checking the database; one sequence call is made per {@link #BLOCK_SIZE} cards.
+ */
+@Component
+class CardNumberAllocator {
+
+    // Совпадает с INCREMENT BY card_number_block_seq
+    static final int BLOCK_SIZE = 1000;
+
+    private final CardRepository cardRepository;
+    private final long permutationKey;
+
+    private long next;
+    private long limit;
+
+    CardNumberAllocator(CardRepository cardRepository,
+                        @Value("${card-number.permutation-key}") long permutationKey) {
+        this.cardRepository = cardRepository;
+        this.permutationKey = permutationKey;
+    }
+
+    public String nextCardNumber() {
+        return toCardNumber(nextAccountNumber());
+    }
+
+    // Номера для массового выпуска берутся под одной блокировкой, перестановка считается вызывающим параллельно
+    public synchronized long[] nextAccountNumbers(int count) {
+        long[] accountNumbers = new long[count];
+        for (int i = 0; i < count; i++) {
+            accountNumbers[i] = nextAccountNumber();
+        }
+        return accountNumbers;
+    }
+
+    public String toCardNumber(long accountNumber) {
+        return CardNumberGenerator.fromAccountNumber(CardNumberGenerator.permute(accountNumber, permutationKey));
+    }
+
+    private synchronized long nextAccountNumber() {
+        if (next == limit) {
+            long blockStart = cardRepository.reserveCardNumberBlock();
+            if (blockStart + BLOCK_SIZE > CardNumberGenerator.ACCOUNT_NUMBER_SPACE) {
+                throw new IllegalStateException("Card number space is exhausted");
+            }
+            next = blockStart;
+            limit = blockStart + BLOCK_SIZE;
+        }
+        return next++;
+    }
+}
@@ -1,81 +1,265 @@
 package com.example.bankcards.service.impl;
 
 import com.example.bankcards.dto.BlockCardResponse;
+import com.example.bankcards.dto.BulkCardCreateResponse;
+import com.example.bankcards.dto.BulkCardCreateResult;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
 import com.example.bankcards.dto.CardCreateRequest;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardExpiryReport;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResponse;
+import com.example.bankcards.dto.CardStateChange;
 import com.example.bankcards.dto.mapper.CardMapper;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.OutboxEventType;
 import com.example.bankcards.entity.enums.UserRole;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CardNumberHasher;
+import com.example.bankcards.service.BulkCardAction;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.EncryptionService;
+import com.example.bankcards.service.SchedulerLockService;
 import com.example.bankcards.util.CardNumberGenerator;
-import com.example.bankcards.util.EncryptionUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CardServiceImpl implements CardService {
 
+    private static final String EXPIRY_LOCK = "card-expiry";
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final String BULK_SUCCESS = "success";
+    private static final String BULK_FAILED = "failed";
+
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardMapper cardMapper;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final LedgerRecorder ledgerRecorder;
+    private final OutboxRecorder outboxRecorder;
+    private final CardNumberHasher cardNumberHasher;
+    private final EncryptionService encryptionService;
+    private final CardNumberAllocator cardNumberAllocator;
+    private final CardCache cardCache;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @Override
-    @Transactional(readOnly = true)
-    public Page<CardDto> getUserCards(Long userId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    private final AtomicInteger expiryProgressPercent = new AtomicInteger();
+
+    @Value("${cards.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    @Value("${cards.bulk.parallelism:4}")
+    private int bulkParallelism;
+
+    @Value("${cards.bulk.status-chunk-size:1000}")
+    private int bulkStatusChunkSize;
+
+    @Value("${cards.bulk.max-size:100000}")
+    private int bulkMaxSize;
+
+    @Value("${cards.expiry.chunk-size:10000}")
+    private long expiryChunkSize;
+
+    // Должна с запасом превышать время обработки одной пачки
+    @Value("${cards.expiry.lock-lease:5m}")
+    private Duration expiryLockLease;
+
+    // Общий для всех запросов массового выпуска: параллельность ограничена сверху, а не для каждого запроса
+    private ForkJoinPool bulkPool;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("cards.expiry.progress.percent", expiryProgressPercent);
+    }
 
-        return cardRepository.findByUser(user, pageable)
-                .map(cardMapper::toDto);
+    @PostConstruct
+    void startBulkPool() {
+        if (bulkChunkSize <= 0) {
+            throw new IllegalStateException("cards.bulk.chunk-size must be positive");
+        }
+        if (bulkParallelism <= 0) {
+            throw new IllegalStateException("cards.bulk.parallelism must be positive");
+        }
+        bulkPool = new ForkJoinPool(bulkParallelism);
+    }
+
+    @PreDestroy
+    void stopBulkPool() {
+        bulkPool.shutdown();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<CardDto> getUserCardsByUsername(String username, Pageable pageable) {
-        return cardRepository.findByUsername(username, pageable)
-                .map(cardMapper::toDto);
+    public Page<CardDto> getUserCards(Long userId, Pageable pageable) {
+        return cardCache.getUserCards(userId, pageable, () ->
+                cardRepository.findViewsByUserId(userId, pageable).map(cardMapper::toDto));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CardDto> getAllCards() {
-        return cardRepository.findAll().stream()
+    public CardSearchResponse searchCards(CardSearchFilter filter, Long afterId, int size) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+
+        List<CardDto> cards = cardRepository.searchCards(filterSpecification(filter, afterId), size).stream()
                 .map(cardMapper::toDto)
-                .collect(Collectors.toList());
+                .toList();
+        Long nextAfterId = cards.size() < size ? null : cards.get(cards.size() - 1).getId();
+        return new CardSearchResponse(cards, nextAfterId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CardDto getCardById(Long id) {
-        Card card = cardRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + id));
-        return cardMapper.toDto(card);
+        return cardCache.getCard(id, () -> cardRepository.findViewById(id)
+                .map(cardMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + id)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public CardDto getUserCardById(Long userId, Long cardId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        Card card = cardRepository.findByIdAndUser(cardId, user)
+        return cardRepository.findViewByIdAndUserId(cardId, userId)
+                .map(cardMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + cardId));
+    }
 
-        return cardMapper.toDto(card);
+    @Override
+    @Transactional(readOnly = true)
+    public CardDto findCardByNumber(String cardNumber) {
+        // Номер карты не попадает в сообщение об ошибке
+        return cardRepository.findViewByCardNumberHash(cardNumberHasher.hash(cardNumber))
+                .map(cardMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+    }
+
+    @Override
+    public BulkCardStatusResponse bulkUpdateCards(BulkCardStatusRequest request) {
+        boolean byIds = request.getCardIds() != null && !request.getCardIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new IllegalArgumentException("Either cardIds or filter must be given");
+        }
+        // Вызовы в обход валидации контроллера не должны падать NPE при сортировке
+        if (byIds && request.getCardIds().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("cardIds must not contain null");
+        }
+        if (request.getAction() == BulkCardAction.SET_STATUS && request.getStatus() == null) {
+            throw new IllegalArgumentException("Status is required for SET_STATUS");
+        }
+
+        int matched = 0;
+        int updated = 0;
+        int chunks = 0;
+        if (byIds) {
+            // Id сортируются, чтобы одновременные массовые операции брали блокировки строк в одном порядке
+            List<Long> ids = request.getCardIds().stream().distinct().sorted().toList();
+            for (int offset = 0; offset < ids.size(); offset += bulkStatusChunkSize) {
+                List<Long> chunk = ids.subList(offset, Math.min(offset + bulkStatusChunkSize, ids.size()));
+                updated += transactionTemplate.execute(status -> applyBulkAction(request, chunk));
+                chunks++;
+            }
+            matched = ids.size();
+        } else {
+            CardSearchFilter filter = request.getFilter();
+            if (filter.getStatus() == null && filter.getIsBlocked() == null && filter.getUserId() == null
+                    && filter.getExpiresFrom() == null && filter.getExpiresTo() == null
+                    && (filter.getCardHolderPrefix() == null || filter.getCardHolderPrefix().isBlank())) {
+                throw new IllegalArgumentException("Filter must contain at least one criterion");
+            }
+            // Keyset по id: пачка id выбирается по фильтру и обновляется в своей транзакции
+            Long afterId = null;
+            List<Long> ids;
+            do {
+                ids = cardRepository.findCardIds(filterSpecification(filter, afterId), bulkStatusChunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<Long> chunk = ids;
+                updated += transactionTemplate.execute(status -> applyBulkAction(request, chunk));
+                matched += ids.size();
+                chunks++;
+                afterId = ids.get(ids.size() - 1);
+            } while (ids.size() == bulkStatusChunkSize);
+        }
+        return new BulkCardStatusResponse(matched, updated, matched - updated, chunks);
+    }
+
+    // Правила состояний проверяются в самом UPDATE, поэтому карты не загружаются
+    private int applyBulkAction(BulkCardStatusRequest request, List<Long> ids) {
+        Long[] cardIds = ids.toArray(Long[]::new);
+        LocalDate today = LocalDate.now();
+        List<CardStateChange> changed;
+        OutboxEventType eventType;
+        switch (request.getAction()) {
+            case BLOCK -> {
+                changed = cardRepository.blockCards(cardIds, today);
+                eventType = OutboxEventType.CARD_BLOCKED;
+            }
+            case UNBLOCK -> {
+                changed = cardRepository.unblockCards(cardIds, today);
+                eventType = OutboxEventType.CARD_UNBLOCKED;
+            }
+            default -> {
+                changed = cardRepository.updateCardsStatus(cardIds, request.getStatus().name());
+                eventType = OutboxEventType.CARD_STATUS_CHANGED;
+            }
+        }
+        outboxRecorder.recordCardChanges(changed, eventType);
+        changed.forEach(card -> cardCache.evictCard(card.getId(), card.getUserId()));
+        return changed.size();
+    }
+
+    private Specification<Card> filterSpecification(CardSearchFilter filter, Long afterId) {
+        return Specification.<Card>unrestricted()
+                .and(CardSpecifications.idAfter(afterId))
+                .and(CardSpecifications.hasStatus(filter.getStatus()))
+                .and(CardSpecifications.isBlocked(filter.getIsBlocked()))
+                .and(CardSpecifications.belongsToUser(filter.getUserId()))
+                .and(CardSpecifications.expiresFrom(filter.getExpiresFrom()))
+                .and(CardSpecifications.expiresTo(filter.getExpiresTo()))
+                .and(CardSpecifications.cardHolderStartsWith(filter.getCardHolderPrefix()));
     }
 
     @Override
@@ -84,36 +268,150 @@ public class CardServiceImpl implements CardService {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
 
-        String cardNumber = CardNumberGenerator.generate();
-        String encryptedCardNumber = EncryptionUtil.encrypt(cardNumber);
-        String cvv = CardNumberGenerator.generateCVV();
+        Card savedCard = cardRepository.save(newCard(request, user, cardNumberAllocator.nextCardNumber()));
+        ledgerRecorder.recordOpening(savedCard);
+        cardCache.evictUserCards(user.getId());
+        return cardMapper.toDto(savedCard);
+    }
+
+    @Override
+    public BulkCardCreateResponse bulkCreateCards(List<CardCreateRequest> requests) {
+        if (requests.size() > bulkMaxSize) {
+            throw new IllegalArgumentException("At most " + bulkMaxSize + " cards can be created in one request");
+        }
+
+        // Все владельцы читаются одним запросом
+        Map<Long, User> users = userRepository.findAllById(requests.stream()
+                        .map(CardCreateRequest::getUserId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        BulkCardCreateResult[] results = new BulkCardCreateResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Long userId = requests.get(i).getUserId();
+            if (users.containsKey(userId)) {
+                accepted.add(i);
+            } else {
+                results[i] = new BulkCardCreateResult(i, userId, null, null, BULK_FAILED, "User not found with id: " + userId);
+            }
+        }
+
+        // Пачки вставляются параллельно в отдельных транзакциях; каждая пишет только свои элементы results
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int offset = 0; offset < accepted.size(); offset += bulkChunkSize) {
+            List<Integer> indexes = accepted.subList(offset, Math.min(offset + bulkChunkSize, accepted.size()));
+            chunks.add(() -> {
+                createChunk(requests, users, indexes, results);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> chunk : bulkPool.invokeAll(chunks)) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk card creation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk card creation failed", e.getCause());
+        }
+        users.keySet().forEach(cardCache::evictUserCards);
+
+        int succeeded = (int) Arrays.stream(results)
+                .filter(result -> BULK_SUCCESS.equals(result.getStatus()))
+                .count();
+        return new BulkCardCreateResponse(succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+
+    // Номера, HMAC и шифрование считаются параллельно вне транзакции; транзакция пачки — только пакетные INSERT.
+    // Любая ошибка остаётся в results своей пачки или строки: другие пачки уже могли закоммититься
+    private void createChunk(List<CardCreateRequest> requests, Map<Long, User> users, List<Integer> indexes,
+                             BulkCardCreateResult[] results) {
+        long[] accountNumbers;
+        try {
+            accountNumbers = cardNumberAllocator.nextAccountNumbers(indexes.size());
+        } catch (RuntimeException e) {
+            String reason = ChunkFailures.reason(e);
+            log.warn("Bulk card chunk of {} cards failed to allocate numbers: {}", indexes.size(), reason, e);
+            indexes.forEach(index -> results[index] = bulkFailure(requests, index, reason));
+            return;
+        }
 
-        if (cardRepository.existsByEncryptedCardNumber(encryptedCardNumber)) {
-            throw new IllegalStateException("Generated card number already exists");
+        Card[] built = new Card[indexes.size()];
+        IntStream.range(0, indexes.size())
+                .parallel()
+                .forEach(i -> {
+                    int index = indexes.get(i);
+                    CardCreateRequest request = requests.get(index);
+                    try {
+                        built[i] = newCard(request, users.get(request.getUserId()), cardNumberAllocator.toCardNumber(accountNumbers[i]));
+                    } catch (RuntimeException e) {
+                        String reason = ChunkFailures.reason(e);
+                        log.warn("Bulk card row {} could not be built: {}", index, reason, e);
+                        results[index] = bulkFailure(requests, index, reason);
+                    }
+                });
+        List<Card> cards = Arrays.stream(built).filter(Objects::nonNull).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cardRepository.saveAll(cards);
+                ledgerRecorder.recordOpenings(cards);
+            });
+        } catch (RuntimeException e) {
+            String reason = ChunkFailures.reason(e);
+            log.warn("Bulk card chunk of {} cards rolled back: {}", cards.size(), reason, e);
+            for (int i = 0; i < indexes.size(); i++) {
+                if (built[i] != null) {
+                    results[indexes.get(i)] = bulkFailure(requests, indexes.get(i), "Chunk transaction was rolled back: " + reason);
+                }
+            }
+            return;
         }
 
+        for (int i = 0; i < indexes.size(); i++) {
+            Card card = built[i];
+            if (card == null) {
+                continue;
+            }
+            int index = indexes.get(i);
+            results[index] = new BulkCardCreateResult(index, card.getUser().getId(), card.getId(),
+                    CardMapper.maskCardNumber(card.getCardLast4()), BULK_SUCCESS, null);
+        }
+    }
+
+    private BulkCardCreateResult bulkFailure(List<CardCreateRequest> requests, int index, String message) {
+        return new BulkCardCreateResult(index, requests.get(index).getUserId(), null, null, BULK_FAILED, message);
+    }
+
+    // Номер уникален по построению; уникальный индекс по HMAC остаётся последней страховкой
+    private Card newCard(CardCreateRequest request, User user, String cardNumber) {
         Card card = new Card();
-        card.setEncryptedCardNumber(encryptedCardNumber);
+        card.setEncryptedCardNumber(encryptionService.encrypt(cardNumber));
+        card.setCardNumberHash(cardNumberHasher.hash(cardNumber));
+        card.setCardLast4(cardNumber.substring(cardNumber.length() - 4));
         card.setCardHolder(request.getCardHolder());
         card.setExpirationDate(request.getExpirationDate());
         card.setBalance(request.getInitialBalance());
         card.setStatus(CardStatus.ACTIVE);
         card.setUser(user);
-        card.setCvv(EncryptionUtil.encrypt(cvv));
-
-        Card savedCard = cardRepository.save(card);
-        return cardMapper.toDto(savedCard);
+        card.setCvv(encryptionService.encrypt(CardNumberGenerator.generateCVV()));
+        return card;
     }
 
     @Override
-    @Transactional
     public CardDto updateCardStatus(Long id, CardStatus status) {
-        Card card = cardRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + id));
-
-        card.setStatus(status);
-        Card updatedCard = cardRepository.save(card);
-        return cardMapper.toDto(updatedCard);
+        return retryExecutor.execute("updateCardStatus", () -> {
+            Card card = cardRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + id));
+
+            card.setStatus(status);
+            Card updatedCard = cardRepository.save(card);
+            outboxRecorder.recordCardChange(updatedCard, OutboxEventType.CARD_STATUS_CHANGED);
+            cardCache.evictCard(id, updatedCard.getUser().getId());
+            return cardMapper.toDto(updatedCard);
+        });
     }
 
     @Override
@@ -122,76 +420,123 @@ public class CardServiceImpl implements CardService {
         Card card = cardRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + id));
         cardRepository.delete(card);
+        cardCache.evictCard(id, card.getUser().getId());
     }
 
     @Override
-    @Transactional
-    public void checkExpiredCards() {
-        LocalDate today = LocalDate.now();
-        List<Card> expiredCards = cardRepository.findByExpirationDateBefore(today);
+    public CardExpiryReport checkExpiredCards() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!schedulerLockService.tryAcquire(EXPIRY_LOCK, expiryLockLease)) {
+            return new CardExpiryReport(startedAt, LocalDateTime.now(), false, 0, 0);
+        }
 
-        for (Card card : expiredCards) {
-            if (card.getStatus() != CardStatus.EXPIRED) {
-                card.setStatus(CardStatus.EXPIRED);
-                cardRepository.save(card);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            LocalDate today = LocalDate.now();
+            Long minId = cardRepository.findMinExpiringId(today);
+            Long maxId = cardRepository.findMaxExpiringId(today);
+            expiryProgressPercent.set(0);
+            int chunks = 0;
+            int expired = 0;
+            if (minId != null) {
+                for (long from = minId; from <= maxId; from += expiryChunkSize) {
+                    // Аренда продлевается на каждой пачке; если её забрал другой узел, прогон прекращается
+                    if (chunks > 0 && !schedulerLockService.tryAcquire(EXPIRY_LOCK, expiryLockLease)) {
+                        break;
+                    }
+                    long fromId = from;
+                    long toId = Math.min(from + expiryChunkSize - 1, maxId);
+                    // Каждая пачка — отдельная короткая транзакция, события пишутся в ней же
+                    int changed = transactionTemplate.execute(status -> {
+                        List<CardStateChange> cards = cardRepository.expireCards(fromId, toId, today);
+                        outboxRecorder.recordCardChanges(cards, OutboxEventType.CARD_STATUS_CHANGED);
+                        cards.forEach(card -> cardCache.evictCard(card.getId(), card.getUserId()));
+                        return cards.size();
+                    });
+                    chunks++;
+                    expired += changed;
+                    meterRegistry.counter("cards.expiry.cards.expired").increment(changed);
+                    expiryProgressPercent.set((int) ((toId - minId + 1) * 100 / (maxId - minId + 1)));
+                }
+            } else {
+                expiryProgressPercent.set(100);
             }
+            return new CardExpiryReport(startedAt, LocalDateTime.now(), true, chunks, expired);
+        } finally {
+            sample.stop(meterRegistry.timer("cards.expiry.duration"));
+            schedulerLockService.release(EXPIRY_LOCK);
         }
     }
 
     @Override
     @Transactional
-    public BlockCardResponse blockCard(Long cardId, Long userId) {
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + cardId));
+    public int backfillCardNumberHashes(int batchSize) {
+        List<Card> cards = cardRepository.findWithoutCardNumberHash(PageRequest.of(0, batchSize));
+        List<String> cardNumbers = encryptionService.decryptAll(cards.stream()
+                .map(Card::getEncryptedCardNumber)
+                .collect(Collectors.toList()));
+        for (int i = 0; i < cards.size(); i++) {
+            cardRepository.setCardNumberHash(cards.get(i).getId(), cardNumberHasher.hash(cardNumbers.get(i)));
+        }
+        return cards.size();
+    }
 
-        checkCardPermission(card, userId, "block");
-        validateCardForBlocking(card);
+    @Override
+    public BlockCardResponse blockCard(Long cardId, Long userId) {
+        return retryExecutor.execute("blockCard", () -> {
+            Card card = findCardForCaller(cardId, userId, "block");
+            validateCardForBlocking(card);
 
-        card.setIsBlocked(true);
-        if (card.getStatus() == CardStatus.ACTIVE) {
-            card.setStatus(CardStatus.BLOCKED);
-        }
+            card.setIsBlocked(true);
+            if (card.getStatus() == CardStatus.ACTIVE) {
+                card.setStatus(CardStatus.BLOCKED);
+            }
 
-        cardRepository.save(card);
+            cardRepository.save(card);
+            outboxRecorder.recordCardChange(card, OutboxEventType.CARD_BLOCKED);
+            cardCache.evictCard(cardId, card.getUser().getId());
 
-        return new BlockCardResponse("The card is successfully blocked");
+            return new BlockCardResponse("The card is successfully blocked");
+        });
     }
 
 
     @Override
-    @Transactional
     public BlockCardResponse unblockCard(Long cardId, Long userId) {
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + cardId));
-
-        checkCardPermission(card, userId, "unblock");
-        validateCardForUnblocking(card);
-
-        card.setIsBlocked(false);
-        if (isCardNotExpired(card)) {
-            card.setStatus(CardStatus.ACTIVE);
-        } else {
-            card.setStatus(CardStatus.EXPIRED);
-        }
-        cardRepository.save(card);
+        return retryExecutor.execute("unblockCard", () -> {
+            Card card = findCardForCaller(cardId, userId, "unblock");
+            validateCardForUnblocking(card);
+
+            card.setIsBlocked(false);
+            if (isCardNotExpired(card)) {
+                card.setStatus(CardStatus.ACTIVE);
+            } else {
+                card.setStatus(CardStatus.EXPIRED);
+            }
+            cardRepository.save(card);
+            outboxRecorder.recordCardChange(card, OutboxEventType.CARD_UNBLOCKED);
+            cardCache.evictCard(cardId, card.getUser().getId());
 
-        return new BlockCardResponse("The card is successfully un-blocked");
+            return new BlockCardResponse("The card is successfully un-blocked");
+        });
     }
 
-    private void checkCardPermission(Card card, Long userId, String action) {
-        User currentUser = getUserById(userId);
+    // Карта и роль вызывающего читаются одним запросом; владелец берётся из user_id без загрузки User
+    private Card findCardForCaller(Long cardId, Long userId, String action) {
+        CardRepository.CardForCaller found = cardRepository.findForCaller(cardId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + cardId));
+        if (found.getCallerRole() == null) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
 
-        if (currentUser.getRole() != UserRole.ADMIN && !card.getUser().getId().equals(userId)) {
+        Card card = found.getCard();
+        if (found.getCallerRole() != UserRole.ADMIN && !card.getUser().getId().equals(userId)) {
             throw new AccessDeniedException(
                     "No permission to " + action + " this card. Card owner id: " +
                             card.getUser().getId() + ", current user id: " + userId
             );
         }
-    }
-
-    private User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        return card;
     }
 
     private void validateCardForBlocking(Card card) {
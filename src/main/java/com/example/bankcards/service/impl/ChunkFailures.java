@@ -0,0 +1,23 @@
+package com.example.bankcards.service.impl;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Причина отказа пачки для ответа клиенту: известные классы ошибок БД называются явно, без деталей SQL
+final class ChunkFailures {
+
+    private ChunkFailures() {
+    }
+
+    static String reason(Throwable cause) {
+        if (cause instanceof ConcurrencyFailureException) {
+            return "Lock conflict (deadlock or lock timeout), retry the request";
+        }
+        if (cause instanceof DataIntegrityViolationException) {
+            return "Data integrity violation";
+        }
+        Throwable specific = NestedExceptionUtils.getMostSpecificCause(cause);
+        return specific.getMessage() != null ? specific.getMessage() : specific.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.service.EncryptionService;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AES-GCM with versioned keys. Ciphertext format: {@code v<keyId>:<base64(iv || ciphertext || tag)>}.
+ * Values without a version prefix were written by the former AES/ECB util and are decrypted
+ * with the legacy key, so existing rows stay readable while keys rotate.
+ */
+@Service
+public class EncryptionServiceImpl implements EncryptionService {
+
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String VERSION_PREFIX = "v";
+    private static final char VERSION_SEPARATOR = ':';
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final Map<Integer, SecretKey> keys = new HashMap<>();
+    private final int activeKeyId;
+    private final SecretKey activeKey;
+    private final SecretKey legacyKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Cipher не потокобезопасен, а Cipher.getInstance — самая дорогая часть операции, поэтому экземпляр на поток
+    private final ThreadLocal<Cipher> gcmCipher = ThreadLocal.withInitial(() -> newCipher(GCM_TRANSFORMATION));
+    private final ThreadLocal<Cipher> legacyCipher = ThreadLocal.withInitial(() -> newCipher(LEGACY_TRANSFORMATION));
+
+    public EncryptionServiceImpl(EncryptionProperties properties) {
+        properties.getKeys().forEach((id, key) ->
+                keys.put(id, new SecretKeySpec(Base64.getDecoder().decode(key), "AES")));
+        activeKeyId = properties.getActiveKeyId();
+        activeKey = keys.get(activeKeyId);
+        if (activeKey == null) {
+            throw new IllegalStateException("No encryption key configured for active key id " + activeKeyId);
+        }
+        legacyKey = properties.getLegacyKey() != null
+                ? new SecretKeySpec(properties.getLegacyKey().getBytes(StandardCharsets.UTF_8), "AES")
+                : null;
+    }
+
+    @Override
+    public String encrypt(String data) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.ENCRYPT_MODE, activeKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] plaintext = data.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer output = ByteBuffer.allocate(IV_LENGTH + cipher.getOutputSize(plaintext.length));
+            output.put(iv);
+            cipher.doFinal(ByteBuffer.wrap(plaintext), output);
+
+            return VERSION_PREFIX + activeKeyId + VERSION_SEPARATOR + Base64.getEncoder().encodeToString(output.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error encrypting data", e);
+        }
+    }
+
+    @Override
+    public String decrypt(String encryptedData) {
+        if (StringUtils.isBlank(encryptedData)) {
+            return encryptedData;
+        }
+        try {
+            int separator = encryptedData.indexOf(VERSION_SEPARATOR);
+            if (!encryptedData.startsWith(VERSION_PREFIX) || separator < 0) {
+                return decryptLegacy(encryptedData);
+            }
+
+            int keyId = Integer.parseInt(encryptedData.substring(VERSION_PREFIX.length(), separator));
+            SecretKey key = keys.get(keyId);
+            if (key == null) {
+                throw new IllegalStateException("No encryption key configured for key id " + keyId);
+            }
+
+            byte[] payload = Base64.getDecoder().decode(encryptedData.substring(separator + 1));
+            Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            byte[] plaintext = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error decrypting data", e);
+        }
+    }
+
+    @Override
+    public List<String> decryptAll(List<String> encryptedData) {
+        List<String> decrypted = new ArrayList<>(encryptedData.size());
+        for (String value : encryptedData) {
+            decrypted.add(decrypt(value));
+        }
+        return decrypted;
+    }
+
+    private String decryptLegacy(String encryptedData) throws GeneralSecurityException {
+        if (legacyKey == null) {
+            throw new IllegalStateException("Legacy encryption key is not configured");
+        }
+        Cipher cipher = legacyCipher.get();
+        cipher.init(Cipher.DECRYPT_MODE, legacyKey);
+        byte[] plaintext = cipher.doFinal(Base64.getDecoder().decode(encryptedData));
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException("Cipher " + transformation + " is not available", e);
+        }
+    }
+}
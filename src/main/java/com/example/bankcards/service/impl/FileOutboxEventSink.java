@@ -0,0 +1,63 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.service.OutboxEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events as NDJSON lines to a local file, one write and flush per relayed batch.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${outbox.file.path:outbox/events.ndjson}")
+    private String path;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        Path file = Paths.get(path);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OutboxEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(toJson(event)));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write outbox events to " + path, e);
+        }
+    }
+
+    private ObjectNode toJson(OutboxEvent event) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", event.getId());
+        node.put("eventType", event.getEventType().name());
+        node.put("aggregateId", event.getAggregateId());
+        node.put("createdAt", event.getCreatedAt().toString());
+        node.set("payload", objectMapper.readTree(event.getPayload()));
+        return node;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.entity.IdempotencyRecordId;
+import com.example.bankcards.entity.enums.IdempotencyStatus;
+import com.example.bankcards.exception.IdempotencyConflictException;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import com.example.bankcards.service.IdempotencyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${idempotency.pending-timeout:5m}")
+    private Duration pendingTimeout;
+
+    // Горячий слой над таблицей: повтор уже выполненного запроса отвечает без обращения к БД
+    private Cache<IdempotencyRecordId, TransferResponse> completedResponses;
+
+    @PostConstruct
+    void initCache() {
+        // Раньше этого срока перевод владельца ключа ещё может закоммититься — перехват дал бы двойное списание
+        if (pendingTimeout.compareTo(retryExecutor.maxDuration()) <= 0) {
+            throw new IllegalStateException("idempotency.pending-timeout must be longer than "
+                    + retryExecutor.maxDuration() + ", the longest a transfer with retries can take");
+        }
+        completedResponses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public TransferResponse execute(Long userId, String idempotencyKey, TransferRequest request,
+                                    Supplier<TransferResponse> transfer) {
+        if (idempotencyKey == null) {
+            return transfer.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        IdempotencyRecordId id = new IdempotencyRecordId(userId, idempotencyKey);
+
+        TransferResponse cached = completedResponses.getIfPresent(id);
+        if (cached != null) {
+            checkSameRequest(cached.getFromCardId(), cached.getToCardId(), cached.getAmount(), cached.getDescription(), request);
+            return cached;
+        }
+
+        // Точность столбца — микросекунды; по этому значению complete и release узнают свою резервацию
+        LocalDateTime reservedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Boolean reserved = transactionTemplate.execute(status -> idempotencyRecordRepository.reserve(
+                userId, idempotencyKey, request.getFromCardId(), request.getToCardId(), request.getAmount(),
+                request.getDescription(), reservedAt, reservedAt.minus(pendingTimeout)) == 1);
+        if (!Boolean.TRUE.equals(reserved)) {
+            return replay(id, request);
+        }
+
+        try {
+            // Перевод и отметка о выполнении коммитятся вместе — повтор не может увидеть перевод без сохранённого ответа
+            TransferResponse response = retryExecutor.execute("transfer", () -> {
+                TransferResponse result = transfer.get();
+                if (idempotencyRecordRepository.complete(id, reservedAt, result.getTimestamp()) == 0) {
+                    throw new IdempotencyConflictException("A request with this Idempotency-Key has been taken over by a retry");
+                }
+                return result;
+            });
+            completedResponses.put(id, response);
+            return response;
+        } catch (RuntimeException e) {
+            // Перевод не выполнен — освобождаем ключ, чтобы клиент мог повторить запрос с ним же
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(id, reservedAt));
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpiredKeys() {
+        return idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private TransferResponse replay(IdempotencyRecordId id, TransferRequest request) {
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id)
+                .orElseThrow(() -> new IdempotencyConflictException(
+                        "A request with this Idempotency-Key has just failed, retry it"));
+
+        checkSameRequest(record.getFromCardId(), record.getToCardId(), record.getAmount(), record.getDescription(), request);
+
+        if (record.getStatus() != IdempotencyStatus.COMPLETED) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+
+        TransferResponse response = new TransferResponse(
+                "success",
+                record.getFromCardId(),
+                record.getToCardId(),
+                record.getAmount(),
+                record.getDescription(),
+                record.getCompletedAt()
+        );
+        completedResponses.put(id, response);
+        return response;
+    }
+
+    private void checkSameRequest(Long fromCardId, Long toCardId, BigDecimal amount, String description,
+                                  TransferRequest request) {
+        boolean same = fromCardId.equals(request.getFromCardId())
+                && toCardId.equals(request.getToCardId())
+                && amount.compareTo(request.getAmount()) == 0
+                && Objects.equals(description, request.getDescription());
+        if (!same) {
+            throw new IdempotencyConflictException("Idempotency-Key has already been used for a different request");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.enums.LedgerEntryType;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends ledger entries for every balance change. Called inside the transaction that
+ * changes the balance, so cards.balance and the ledger can only diverge through a bug.
+ */
+@Component
+@RequiredArgsConstructor
+class LedgerRecorder {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    public void recordTransfers(List<Transaction> transactions) {
+        List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            if (transaction.getFromCard() != null) {
+                entries.add(entry(transaction.getFromCard().getId(), transaction.getId(), LedgerEntryType.DEBIT,
+                        transaction.getAmount(), transaction.getTimestamp()));
+            }
+            entries.add(entry(transaction.getToCard().getId(), transaction.getId(), LedgerEntryType.CREDIT,
+                    transaction.getAmount(), transaction.getTimestamp()));
+        }
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    public void recordOpening(Card card) {
+        recordOpenings(List.of(card));
+    }
+
+    public void recordOpenings(List<Card> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (Card card : cards) {
+            if (card.getBalance().signum() != 0) {
+                entries.add(entry(card.getId(), null, LedgerEntryType.OPENING, card.getBalance(), now));
+            }
+        }
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    private LedgerEntry entry(Long cardId, Long transactionId, LedgerEntryType type, BigDecimal amount,
+                              LocalDateTime createdAt) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setCardId(cardId);
+        entry.setTransactionId(transactionId);
+        entry.setEntryType(type);
+        entry.setAmount(amount);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
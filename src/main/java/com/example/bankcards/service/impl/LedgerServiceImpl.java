@@ -0,0 +1,145 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.CardBalanceDrift;
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.SchedulerLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private static final String CHECKPOINT_LOCK = "ledger-checkpoint";
+    private static final String RECONCILIATION_LOCK = "ledger-reconciliation";
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final CardRepository cardRepository;
+    private final MeterRegistry meterRegistry;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger lastDriftCount = new AtomicInteger();
+
+    // Записи моложе этого интервала могут принадлежать ещё не закоммиченным переводам,
+    // поэтому контрольная точка их не покрывает
+    @Value("${ledger.checkpoint.settle-interval:5m}")
+    private Duration settleInterval;
+
+    @Value("${ledger.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${ledger.reconciliation.range-size:10000}")
+    private long rangeSize;
+
+    @Value("${ledger.checkpoint.lock-lease:10m}")
+    private Duration checkpointLockLease;
+
+    @Value("${ledger.reconciliation.lock-lease:10m}")
+    private Duration reconciliationLockLease;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("ledger.reconciliation.drift.cards", lastDriftCount);
+    }
+
+    // Задания запускаются на каждом узле; выполняет тот, кто получил аренду
+    @Override
+    public int advanceCheckpoints() {
+        if (!schedulerLockService.tryAcquire(CHECKPOINT_LOCK, checkpointLockLease)) {
+            return 0;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            return transactionTemplate.execute(status ->
+                    ledgerEntryRepository.advanceCheckpoints(now.minus(settleInterval), now));
+        } finally {
+            schedulerLockService.release(CHECKPOINT_LOCK);
+        }
+    }
+
+    @Override
+    public ReconciliationReport reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!schedulerLockService.tryAcquire(RECONCILIATION_LOCK, reconciliationLockLease)) {
+            return new ReconciliationReport(startedAt, LocalDateTime.now(), false, 0, List.of());
+        }
+        try {
+            Long minId = cardRepository.findMinId();
+            Long maxId = cardRepository.findMaxId();
+            if (minId == null) {
+                return new ReconciliationReport(startedAt, LocalDateTime.now(), true, 0, List.of());
+            }
+
+            AtomicInteger ranges = new AtomicInteger();
+            AtomicBoolean leaseLost = new AtomicBoolean();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<CardBalanceDrift> drifts = pool.invoke(new ReconcileRange(minId, maxId, ranges, leaseLost));
+                // Неполный прогон не должен сбрасывать метрику расхождений прошлого полного прогона
+                if (!leaseLost.get()) {
+                    lastDriftCount.set(drifts.size());
+                }
+                return new ReconciliationReport(startedAt, LocalDateTime.now(), true, ranges.get(), drifts);
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            schedulerLockService.release(RECONCILIATION_LOCK);
+        }
+    }
+
+    // Диапазон id карт делится пополам, пока не станет не больше rangeSize; каждый лист — один запрос.
+    // Запрос видит один снимок БД, поэтому перевод попадает и в cards.balance, и в журнал, либо ни туда, ни туда
+    private class ReconcileRange extends RecursiveTask<List<CardBalanceDrift>> {
+
+        private final long fromId;
+        private final long toId;
+        private final AtomicInteger ranges;
+        private final AtomicBoolean leaseLost;
+
+        ReconcileRange(long fromId, long toId, AtomicInteger ranges, AtomicBoolean leaseLost) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.ranges = ranges;
+            this.leaseLost = leaseLost;
+        }
+
+        @Override
+        protected List<CardBalanceDrift> compute() {
+            if (toId - fromId < rangeSize) {
+                // Аренда продлевается на каждом диапазоне; если её забрал другой узел, оставшиеся диапазоны пропускаются
+                if (leaseLost.get() || !schedulerLockService.tryAcquire(RECONCILIATION_LOCK, reconciliationLockLease)) {
+                    leaseLost.set(true);
+                    return List.of();
+                }
+                ranges.incrementAndGet();
+                return ledgerEntryRepository.findBalanceDrifts(fromId, toId);
+            }
+
+            long middle = fromId + (toId - fromId) / 2;
+            ReconcileRange left = new ReconcileRange(fromId, middle, ranges, leaseLost);
+            ReconcileRange right = new ReconcileRange(middle + 1, toId, ranges, leaseLost);
+            left.fork();
+            List<CardBalanceDrift> drifts = new ArrayList<>(right.compute());
+            drifts.addAll(0, left.join());
+            return drifts;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in its own transaction and repeats it with jittered exponential backoff
+ * when the commit fails on a {@code @Version} conflict. Every attempt is bounded by
+ * {@code optimistic-lock.transaction-timeout}.
+ */
+@Component
+@RequiredArgsConstructor
+class OptimisticRetryExecutor {
+
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${optimistic-lock.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${optimistic-lock.backoff-ms:20}")
+    private long backoffMs;
+
+    @Value("${optimistic-lock.transaction-timeout:30s}")
+    private Duration transactionTimeout;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        if (transactionTimeout.toSeconds() <= 0) {
+            throw new IllegalStateException("optimistic-lock.transaction-timeout must be at least one second");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout((int) transactionTimeout.toSeconds());
+    }
+
+    /**
+     * Upper bound of the time from a call of {@link #execute} to the end of its last transaction.
+     */
+    public Duration maxDuration() {
+        long pauses = 0;
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            pauses += backoffMs << Math.min(attempt - 1, 10);
+        }
+        return transactionTimeout.multipliedBy(maxAttempts).plusMillis(pauses);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // Внутри чужой транзакции повтор бесполезен — она уже помечена на откат, решать должен вызывающий
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("optimistic.lock.failures", "operation", operation).increment();
+                    throw e;
+                }
+                meterRegistry.counter("optimistic.lock.retries", "operation", operation).increment();
+                pause(operation, attempt);
+            }
+        }
+    }
+
+    private void pause(String operation, int attempt) {
+        long bound = backoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry " + operation, e);
+        }
+    }
+}
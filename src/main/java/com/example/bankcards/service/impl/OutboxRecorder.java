@@ -0,0 +1,91 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.CardStateChange;
+import com.example.bankcards.dto.mapper.TransactionMapper;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.OutboxEventType;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes outbox events in the caller's transaction: an event exists exactly when the
+ * change it describes was committed. Delivery is left to the outbox relay.
+ * <p>
+ * Events are delivered at least once and in no guaranteed order: several nodes relay disjoint
+ * batches concurrently, and pooled sequences do not number events in commit order. Card events
+ * carry the card {@code version} after the change, which grows with every committed write of the
+ * card; a consumer applies a card event only if its version is higher than the last one it applied
+ * for that card. Transfer events describe immutable transactions and need no ordering.
+ */
+@Component
+@RequiredArgsConstructor
+class OutboxRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionMapper transactionMapper;
+    private final ObjectMapper objectMapper;
+
+    public void recordTransfers(List<Transaction> transactions) {
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            events.add(event(OutboxEventType.TRANSFER_COMPLETED, transaction.getId(),
+                    transactionMapper.toDto(transaction)));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    public void recordCardChange(Card card, OutboxEventType type) {
+        // Hibernate увеличивает version при flush; без него событие получило бы версию до изменения
+        outboxEventRepository.flush();
+        outboxEventRepository.save(event(type, card.getId(),
+                cardPayload(card.getId(), card.getUser().getId(), card.getStatus(), card.getIsBlocked(), card.getVersion())));
+    }
+
+    public void recordCardChanges(List<CardStateChange> cards, OutboxEventType type) {
+        List<OutboxEvent> events = new ArrayList<>(cards.size());
+        for (CardStateChange card : cards) {
+            events.add(event(type, card.getId(),
+                    cardPayload(card.getId(), card.getUserId(), card.getStatus(), card.getIsBlocked(), card.getVersion())));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private Map<String, Object> cardPayload(Long cardId, Long userId, CardStatus status, Boolean isBlocked, Long version) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("cardId", cardId);
+        payload.put("userId", userId);
+        payload.put("status", status);
+        payload.put("isBlocked", isBlocked);
+        payload.put("version", version);
+        return payload;
+    }
+
+    private OutboxEvent event(OutboxEventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox event payload", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.example.bankcards.service.OutboxEventSink;
+import com.example.bankcards.service.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink outboxEventSink;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    // События удаляются в той же транзакции, что держит их блокировки: если sink упал,
+    // откат возвращает пачку в очередь, и она будет отправлена повторно (at-least-once)
+    @Override
+    @Transactional
+    public int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        outboxEventSink.publish(events);
+        outboxEventRepository.deleteAllInBatch(events);
+        meterRegistry.counter("outbox.events.published").increment(events.size());
+        return events.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.repository.SchedulerLockRepository;
+import com.example.bankcards.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Lease-based mutual exclusion between nodes through the scheduler_locks table. A lease held by a
+ * node that died expires on its own; a long job keeps its lease by calling {@link #tryAcquire} again.
+ */
+@Service
+@RequiredArgsConstructor
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    private final String owner = hostName() + ":" + UUID.randomUUID();
+
+    @Override
+    @Transactional
+    public boolean tryAcquire(String name, Duration lease) {
+        return schedulerLockRepository.tryLock(name, owner, lease.toSeconds()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void release(String name) {
+        schedulerLockRepository.unlock(name, owner);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
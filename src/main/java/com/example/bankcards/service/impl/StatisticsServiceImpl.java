@@ -0,0 +1,46 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.CardDailyTotalDto;
+import com.example.bankcards.dto.DailyVolumeDto;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardDailyTotalRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.StatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private final CardDailyTotalRepository cardDailyTotalRepository;
+    private final CardRepository cardRepository;
+
+    // Статистика читается из card_daily_totals: стоимость запроса зависит от числа дней, а не транзакций
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyVolumeDto> getDailyVolume(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return cardDailyTotalRepository.findDailyVolume(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardDailyTotalDto> getCardDailyTotals(Long cardId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!cardRepository.existsById(cardId)) {
+            throw new ResourceNotFoundException("Card not found with id: " + cardId);
+        }
+        return cardDailyTotalRepository.findCardTotals(cardId, from, to);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Statistics range start must not be after its end");
+        }
+    }
+}
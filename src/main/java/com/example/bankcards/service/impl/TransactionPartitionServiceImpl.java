@@ -0,0 +1,237 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.service.SchedulerLockService;
+import com.example.bankcards.service.TransactionExportFormat;
+import com.example.bankcards.service.TransactionPartitionService;
+import com.example.bankcards.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Creates and archives monthly partitions of transactions. Each job runs on every node under its own
+ * scheduler lease, so the same DDL is never issued by two nodes at once. The parent table is never
+ * locked exclusively: a new partition is created standalone and attached, an archived one is detached
+ * concurrently before it is dropped. Both only take SHARE UPDATE EXCLUSIVE, which does not block inserts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionServiceImpl implements TransactionPartitionService {
+
+    private static final String PARTITION_PREFIX = "transactions_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITION_LOCK = "transaction-partitions";
+    private static final String ARCHIVE_LOCK = "transaction-archive";
+
+    private final TransactionService transactionService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLockService schedulerLockService;
+    private final MeterRegistry meterRegistry;
+
+    // Сколько месяцев подряд, начиная с текущего, покрыто секциями
+    private final AtomicInteger monthsCovered = new AtomicInteger();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transactions.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${transactions.archive.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${transactions.archive.directory:archive}")
+    private String archiveDirectory;
+
+    @Value("${transactions.partitions.min-months-ahead:2}")
+    private int minMonthsAhead;
+
+    @Value("${transactions.partitions.lock-lease:10m}")
+    private Duration lockLease;
+
+    @Value("${transactions.archive.lock-lease:1h}")
+    private Duration archiveLockLease;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("transactions.partitions.months.covered", monthsCovered);
+    }
+
+    // Секции по умолчанию нет (миграция 18): вставка в месяц без секции падает, поэтому покрытие
+    // проверяется на каждом узле после каждой попытки, даже если аренду получил другой узел
+    @Override
+    public List<String> createUpcomingPartitions() {
+        List<String> created = List.of();
+        if (schedulerLockService.tryAcquire(PARTITION_LOCK, lockLease)) {
+            try {
+                created = createMissingPartitions();
+            } finally {
+                schedulerLockService.release(PARTITION_LOCK);
+            }
+        }
+        checkCoverage();
+        return created;
+    }
+
+    // CREATE TABLE ... PARTITION OF берёт ACCESS EXCLUSIVE на transactions, и вставки переводов встают в очередь
+    // за ним. Отдельная таблица с ATTACH PARTITION берёт на transactions только SHARE UPDATE EXCLUSIVE.
+    // CHECK с границами секции позволяет ATTACH не сканировать таблицу; после присоединения он не нужен
+    private List<String> createMissingPartitions() {
+        List<String> existing = findPartitions();
+        List<String> created = new ArrayList<>();
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = partitionName(month);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            String from = "'" + month.atDay(1) + "'";
+            String to = "'" + month.plusMonths(1).atDay(1) + "'";
+            transactionTemplate.executeWithoutResult(status -> {
+                // DDL в PostgreSQL транзакционный: прерванный прогон не оставляет неприсоединённых таблиц
+                entityManager.createNativeQuery("CREATE TABLE " + partition +
+                        " (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)").executeUpdate();
+                entityManager.createNativeQuery("ALTER TABLE " + partition + " ADD CONSTRAINT " + partition +
+                        "_bounds CHECK (timestamp >= " + from + " AND timestamp < " + to + ")").executeUpdate();
+                entityManager.createNativeQuery("ALTER TABLE transactions ATTACH PARTITION " + partition +
+                        " FOR VALUES FROM (" + from + ") TO (" + to + ")").executeUpdate();
+                entityManager.createNativeQuery("ALTER TABLE " + partition + " DROP CONSTRAINT " + partition +
+                        "_bounds").executeUpdate();
+            });
+            created.add(partition);
+        }
+        return created;
+    }
+
+    private void checkCoverage() {
+        List<String> existing = findPartitions();
+        YearMonth current = YearMonth.now();
+        int covered = 0;
+        while (existing.contains(partitionName(current.plusMonths(covered)))) {
+            covered++;
+        }
+        monthsCovered.set(covered);
+        // Текущий месяц входит в покрытие, поэтому заранее создано covered - 1 месяцев
+        if (covered - 1 < minMonthsAhead) {
+            log.error("Transactions are partitioned only {} month(s) ahead, at least {} required; " +
+                    "inserts fail once the last partition ends", Math.max(covered - 1, 0), minMonthsAhead);
+        }
+    }
+
+    // Секция сначала целиком выгружается в gzip-файл и только после этого удаляется.
+    // Файл пишется во временный и переименовывается, поэтому неполный архив никогда не выглядит готовым
+    @Override
+    public List<String> archiveExpiredPartitions() throws IOException {
+        if (!schedulerLockService.tryAcquire(ARCHIVE_LOCK, archiveLockLease)) {
+            return List.of();
+        }
+        try {
+            YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+            Path directory = Paths.get(archiveDirectory);
+            Files.createDirectories(directory);
+
+            // Секции, отсоединение или удаление которых прервалось в прошлый раз; архив у них уже записан
+            dropInterruptedPartitions(directory);
+
+            List<String> archived = new ArrayList<>();
+            for (String partition : findPartitions()) {
+                YearMonth month = partitionMonth(partition);
+                if (!month.isBefore(oldestKept)) {
+                    continue;
+                }
+                // Аренда продлевается на каждой секции; если её забрал другой узел, прогон прекращается
+                if (!schedulerLockService.tryAcquire(ARCHIVE_LOCK, archiveLockLease)) {
+                    break;
+                }
+
+                Path target = archiveFile(directory, partition);
+                Path temp = directory.resolve(partition + ".csv.gz.tmp");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    transactionService.exportTransactions(month.atDay(1).atStartOfDay(),
+                            month.plusMonths(1).atDay(1).atStartOfDay(), TransactionExportFormat.CSV, out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                // CONCURRENTLY не выполняется внутри транзакции, поэтому идёт через JDBC в режиме autocommit
+                jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition + " CONCURRENTLY");
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                archived.add(partition);
+            }
+            return archived;
+        } finally {
+            schedulerLockService.release(ARCHIVE_LOCK);
+        }
+    }
+
+    private void dropInterruptedPartitions(Path directory) {
+        List<Map<String, Object>> interrupted = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, i.inhdetachpending AS pending FROM pg_class c " +
+                "LEFT JOIN pg_inherits i ON i.inhrelid = c.oid " +
+                "WHERE c.relkind = 'r' AND c.relname ~ '^" + PARTITION_PREFIX + "[0-9]{6}$' " +
+                "AND (i.inhrelid IS NULL OR i.inhdetachpending)");
+        for (Map<String, Object> row : interrupted) {
+            String partition = (String) row.get("name");
+            // Без архива таблицу не трогаем: её данные больше нигде не сохранены
+            if (!Files.exists(archiveFile(directory, partition))) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(row.get("pending"))) {
+                jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition + " FINALIZE");
+            }
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+    }
+
+    // Помесячные секции transactions_pYYYYMM, присоединённые к transactions
+    @SuppressWarnings("unchecked")
+    private List<String> findPartitions() {
+        List<String> names = entityManager.createNativeQuery(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'transactions' AND NOT i.inhdetachpending ORDER BY c.relname").getResultList();
+        return names.stream()
+                .filter(name -> name.matches(PARTITION_PREFIX + "\\d{6}"))
+                .toList();
+    }
+
+    private Path archiveFile(Path directory, String partition) {
+        return directory.resolve(partition + ".csv.gz");
+    }
+
+    private String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private YearMonth partitionMonth(String partition) {
+        return YearMonth.from(LocalDate.parse(partition.substring(PARTITION_PREFIX.length()) + "01",
+                DateTimeFormatter.ofPattern("yyyyMMdd")));
+    }
+}
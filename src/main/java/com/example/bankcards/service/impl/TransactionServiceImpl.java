@@ -0,0 +1,173 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.TransactionDto;
+import com.example.bankcards.dto.TransactionHistoryResponse;
+import com.example.bankcards.dto.mapper.TransactionMapper;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.TransactionExportFormat;
+import com.example.bankcards.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionServiceImpl implements TransactionService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Совпадает с fetch size выгрузки: контекст очищается после каждой прочитанной порции
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    private static final String CSV_HEADER = "id,fromCardId,toCardId,amount,timestamp,description";
+
+    // Курсор первой страницы — заведомо больше любой реальной пары (timestamp, id)
+    private static final LocalDateTime FIRST_PAGE_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Long FIRST_PAGE_ID = Long.MAX_VALUE;
+
+    private final TransactionRepository transactionRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final TransactionMapper transactionMapper;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryResponse getUserHistory(Long userId, LocalDateTime beforeTimestamp, Long beforeId, int size) {
+        validateCursor(beforeTimestamp, beforeId);
+        int limit = pageSize(size);
+
+        List<Transaction> page = transactionRepository.findUserHistory(userId,
+                beforeTimestamp != null ? beforeTimestamp : FIRST_PAGE_TIMESTAMP,
+                beforeId != null ? beforeId : FIRST_PAGE_ID,
+                limit);
+        return toResponse(page, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryResponse getCardHistory(Long userId, Long cardId, LocalDateTime beforeTimestamp,
+                                                     Long beforeId, int size) {
+        validateCursor(beforeTimestamp, beforeId);
+        int limit = pageSize(size);
+
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + cardId));
+        checkHistoryPermission(card, userId);
+
+        List<Transaction> page = transactionRepository.findCardHistory(cardId,
+                beforeTimestamp != null ? beforeTimestamp : FIRST_PAGE_TIMESTAMP,
+                beforeId != null ? beforeId : FIRST_PAGE_ID,
+                limit);
+        return toResponse(page, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(LocalDateTime from, LocalDateTime to, TransactionExportFormat format,
+                                   OutputStream out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == TransactionExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Transaction> transactions = transactionRepository.streamByTimestampRange(from, to)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                TransactionDto dto = transactionMapper.toDto(iterator.next());
+                writer.write(format == TransactionExportFormat.CSV ? toCsvLine(dto) : objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+
+                // Отсоединяем выгруженные транзакции и прокси карт, чтобы память не росла вместе с диапазоном
+                if (++written % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private String toCsvLine(TransactionDto dto) {
+        return dto.getId() + "," +
+                (dto.getFromCardId() != null ? dto.getFromCardId() : "") + "," +
+                dto.getToCardId() + "," +
+                dto.getAmount().toPlainString() + "," +
+                dto.getTimestamp() + "," +
+                escapeCsv(dto.getDescription());
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void checkHistoryPermission(Card card, Long userId) {
+        if (card.getUser().getId().equals(userId)) {
+            return;
+        }
+
+        User currentUser = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            throw new AccessDeniedException("No permission to view transactions of card id: " + card.getId());
+        }
+    }
+
+    private void validateCursor(LocalDateTime beforeTimestamp, Long beforeId) {
+        if ((beforeTimestamp == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeTimestamp and beforeId must be passed together");
+        }
+    }
+
+    private int pageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private TransactionHistoryResponse toResponse(List<Transaction> page, int limit) {
+        List<TransactionDto> transactions = page.stream()
+                .map(transactionMapper::toDto)
+                .collect(Collectors.toList());
+
+        if (page.size() < limit) {
+            return new TransactionHistoryResponse(transactions, null, null);
+        }
+        Transaction last = page.get(page.size() - 1);
+        return new TransactionHistoryResponse(transactions, last.getTimestamp(), last.getId());
+    }
+}
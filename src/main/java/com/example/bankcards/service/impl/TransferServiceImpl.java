@@ -1,5 +1,7 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.BatchTransferResponse;
+import com.example.bankcards.dto.BatchTransferResult;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Transaction;
@@ -8,32 +10,108 @@ import com.example.bankcards.exception.InsufficientFundsException;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.service.TransferMode;
 import com.example.bankcards.service.TransferService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransferServiceImpl implements TransferService {
 
+    private static final String BATCH_SUCCESS = "success";
+    private static final String BATCH_FAILED = "failed";
+
     private final CardRepository cardRepository;
     private final TransactionRepository transactionRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final CardDailyTotalsRecorder dailyTotalsRecorder;
+    private final LedgerRecorder ledgerRecorder;
+    private final OutboxRecorder outboxRecorder;
+    private final CardCache cardCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${transfer.mode:ATOMIC}")
+    private TransferMode mode;
+
+    @Value("${transfer.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${transfer.batch.max-size:10000}")
+    private int batchMaxSize;
+
+    @PostConstruct
+    void validateSettings() {
+        if (batchChunkSize <= 0) {
+            throw new IllegalStateException("transfer.batch.chunk-size must be positive");
+        }
+    }
 
     @Override
-    @Transactional
     public void transferBetweenUserCards(Long userId, TransferRequest request) {
-        Card fromCard = cardRepository.findById(request.getFromCardId())
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + request.getFromCardId()));
+        retryExecutor.execute("transfer", () -> {
+            transfer(userId, request);
+            return null;
+        });
+    }
+
+    @Override
+    public void transferBetweenCards(TransferRequest request) {
+        retryExecutor.execute("transfer", () -> {
+            transfer(null, request);
+            return null;
+        });
+    }
+
+    @Override
+    public BatchTransferResponse transferBatch(List<TransferRequest> requests) {
+        if (requests.size() > batchMaxSize) {
+            throw new IllegalArgumentException("At most " + batchMaxSize + " transfers can be made in one request");
+        }
+
+        List<BatchTransferResult> results = new ArrayList<>(requests.size());
+        for (int offset = 0; offset < requests.size(); offset += batchChunkSize) {
+            List<TransferRequest> chunk = requests.subList(offset, Math.min(offset + batchChunkSize, requests.size()));
+            results.addAll(transferChunk(offset, chunk));
+        }
+
+        int succeeded = (int) results.stream()
+                .filter(result -> BATCH_SUCCESS.equals(result.getStatus()))
+                .count();
+        return new BatchTransferResponse(succeeded, results.size() - succeeded, results);
+    }
+
+    // ownerId == null — административный перевод без проверки владельца
+    private void transfer(Long ownerId, TransferRequest request) {
+        if (mode == TransferMode.ATOMIC) {
+            transferAtomically(ownerId, request);
+            return;
+        }
 
-        Card toCard = cardRepository.findById(request.getToCardId())
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + request.getToCardId()));
+        Map<Long, Card> cards = loadCards(request.getFromCardId(), request.getToCardId());
+        Card fromCard = getLoadedCard(cards, request.getFromCardId());
+        Card toCard = getLoadedCard(cards, request.getToCardId());
 
         // Проверяем, что обе карты принадлежат пользователю
-        if (!fromCard.getUser().getId().equals(userId) || !toCard.getUser().getId().equals(userId)) {
+        if (ownerId != null && (!fromCard.getUser().getId().equals(ownerId) || !toCard.getUser().getId().equals(ownerId))) {
             throw new SecurityException("User can only transfer between their own cards");
         }
 
@@ -41,25 +119,79 @@ public class TransferServiceImpl implements TransferService {
         performTransfer(fromCard, toCard, request.getAmount(), request.getDescription());
     }
 
-    @Override
-    @Transactional
-    public void transferBetweenCards(TransferRequest request) {
-        Card fromCard = cardRepository.findById(request.getFromCardId())
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + request.getFromCardId()));
+    // LOCKING: обе карты блокируются одним запросом в порядке возрастания id, чтобы встречные переводы A→B и B→A не давали deadlock.
+    // OPTIMISTIC: карты читаются без блокировок, конфликт обнаруживается по версии при коммите и повторяется OptimisticRetryExecutor
+    private Map<Long, Card> loadCards(Long fromCardId, Long toCardId) {
+        List<Long> ids = List.of(fromCardId, toCardId);
+        List<Card> cards = mode == TransferMode.LOCKING
+                ? cardRepository.findAllByIdForUpdate(ids)
+                : cardRepository.findAllById(ids);
+        return cards.stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+    }
 
-        Card toCard = cardRepository.findById(request.getToCardId())
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id: " + request.getToCardId()));
+    private Card getLoadedCard(Map<Long, Card> cards, Long cardId) {
+        Card card = cards.get(cardId);
+        if (card == null) {
+            throw new ResourceNotFoundException("Card not found with id: " + cardId);
+        }
+        return card;
+    }
 
-        performTransferChecks(fromCard, toCard, request.getAmount());
-        performTransfer(fromCard, toCard, request.getAmount(), request.getDescription());
+    // Быстрый путь: списание и зачисление — по одному условному UPDATE без чтения карт.
+    // Обновления идут в порядке возрастания id, как и блокировки в режиме LOCKING
+    private void transferAtomically(Long ownerId, TransferRequest request) {
+        Long fromCardId = request.getFromCardId();
+        Long toCardId = request.getToCardId();
+        BigDecimal amount = request.getAmount();
+
+        // Владельцы приходят из RETURNING: по ним сбрасываются кэшированные страницы карт
+        Map<Long, Long> cardOwners = new HashMap<>();
+        if (fromCardId <= toCardId) {
+            cardOwners.put(fromCardId, debit(ownerId, fromCardId, amount));
+            cardOwners.put(toCardId, credit(ownerId, toCardId, amount));
+        } else {
+            cardOwners.put(toCardId, credit(ownerId, toCardId, amount));
+            cardOwners.put(fromCardId, debit(ownerId, fromCardId, amount));
+        }
+
+        saveTransactions(List.of(newTransaction(cardRepository.getReferenceById(fromCardId),
+                cardRepository.getReferenceById(toCardId), amount, request.getDescription())), cardOwners);
+    }
+
+    private Long debit(Long ownerId, Long cardId, BigDecimal amount) {
+        return cardRepository.debitBalance(cardId, ownerId, amount)
+                .orElseThrow(() -> explainRejectedUpdate(cardId, ownerId, true));
+    }
+
+    private Long credit(Long ownerId, Long cardId, BigDecimal amount) {
+        return cardRepository.creditBalance(cardId, ownerId, amount)
+                .orElseThrow(() -> explainRejectedUpdate(cardId, ownerId, false));
+    }
+
+    // UPDATE не затронул ни одной строки — перечитываем карту только на этом (редком) пути,
+    // чтобы вернуть ту же ошибку, что и performTransferChecks
+    private RuntimeException explainRejectedUpdate(Long cardId, Long ownerId, boolean source) {
+        Card card = cardRepository.findById(cardId).orElse(null);
+        if (card == null) {
+            return new ResourceNotFoundException("Card not found with id: " + cardId);
+        }
+        if (ownerId != null && !card.getUser().getId().equals(ownerId)) {
+            return new SecurityException("User can only transfer between their own cards");
+        }
+        if (source && isTransferable(card)) {
+            // карта доступна для перевода — значит, в момент UPDATE на ней не хватало средств
+            return new InsufficientFundsException("Insufficient funds on source card");
+        }
+        return new IllegalStateException(source ? "Source card is not active" : "Destination card is not active");
     }
 
     // ✅ Проверки на активность и баланс
     private void performTransferChecks(Card fromCard, Card toCard, BigDecimal amount) {
-        if (fromCard.getStatus() != CardStatus.ACTIVE) {
+        if (!isTransferable(fromCard)) {
             throw new IllegalStateException("Source card is not active");
         }
-        if (toCard.getStatus() != CardStatus.ACTIVE) {
+        if (!isTransferable(toCard)) {
             throw new IllegalStateException("Destination card is not active");
         }
         if (fromCard.getBalance().compareTo(amount) < 0) {
@@ -67,21 +199,124 @@ public class TransferServiceImpl implements TransferService {
         }
     }
 
+    private boolean isTransferable(Card card) {
+        return card.getStatus() == CardStatus.ACTIVE && !card.getIsBlocked();
+    }
+
     // ✅ Логика перевода и сохранение транзакции
     private void performTransfer(Card fromCard, Card toCard, BigDecimal amount, String description) {
-        fromCard.setBalance(fromCard.getBalance().subtract(amount));
-        toCard.setBalance(toCard.getBalance().add(amount));
+        moveFunds(fromCard, toCard, amount);
 
         cardRepository.save(fromCard);
         cardRepository.save(toCard);
 
+        saveTransactions(List.of(newTransaction(fromCard, toCard, amount, description)), cardOwners(List.of(fromCard, toCard)));
+    }
+
+    private void moveFunds(Card fromCard, Card toCard, BigDecimal amount) {
+        fromCard.setBalance(fromCard.getBalance().subtract(amount));
+        toCard.setBalance(toCard.getBalance().add(amount));
+    }
+
+    // Единая точка записи переводов: транзакции, проводки журнала, дневные итоги по картам
+    // и события outbox пишутся в одной транзакции БД. cardOwners — id изменённых карт и их владельцев
+    private void saveTransactions(List<Transaction> transactions, Map<Long, Long> cardOwners) {
+        transactionRepository.saveAll(transactions);
+        ledgerRecorder.recordTransfers(transactions);
+        dailyTotalsRecorder.record(transactions);
+        outboxRecorder.recordTransfers(transactions);
+        cardCache.evictCards(cardOwners);
+    }
+
+    // Карты загружены, а id владельца берётся из внешнего ключа без чтения users
+    private Map<Long, Long> cardOwners(Collection<Card> cards) {
+        return cards.stream()
+                .collect(Collectors.toMap(Card::getId, card -> card.getUser().getId(), (first, second) -> first));
+    }
+
+    private Transaction newTransaction(Card fromCard, Card toCard, BigDecimal amount, String description) {
         Transaction transaction = new Transaction();
         transaction.setFromCard(fromCard);
         transaction.setToCard(toCard);
         transaction.setAmount(amount);
         transaction.setTimestamp(LocalDateTime.now());
         transaction.setDescription(description != null ? description : "Transfer between cards");
+        return transaction;
+    }
+
+    // Каждый чанк — отдельная транзакция. Все карты чанка блокируются одним запросом в порядке возрастания id,
+    // поэтому чанк не попадает в deadlock ни с другими чанками, ни с одиночными переводами
+    private List<BatchTransferResult> transferChunk(int offset, List<TransferRequest> chunk) {
+        try {
+            return transactionTemplate.execute(status -> applyChunk(offset, chunk));
+        } catch (RuntimeException e) {
+            // Любая ошибка откатывает только этот чанк: предыдущие уже закоммичены, и клиент должен видеть,
+            // какие переводы прошли, а не 500 без результатов
+            int failedIndex = e instanceof ChunkItemException itemFailure ? itemFailure.index : -1;
+            Throwable cause = failedIndex >= 0 ? e.getCause() : e;
+            String reason = ChunkFailures.reason(cause);
+            log.warn("Batch transfer chunk [{}, {}) rolled back{}: {}", offset, offset + chunk.size(),
+                    failedIndex >= 0 ? " at item " + failedIndex : "", reason, cause);
+
+            List<BatchTransferResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = offset + i;
+                String message = index == failedIndex ? reason : "Chunk transaction was rolled back: " + reason;
+                results.add(batchResult(index, chunk.get(i), BATCH_FAILED, message));
+            }
+            return results;
+        }
+    }
+
+    private List<BatchTransferResult> applyChunk(int offset, List<TransferRequest> chunk) {
+        Set<Long> cardIds = new TreeSet<>();
+        for (TransferRequest request : chunk) {
+            cardIds.add(request.getFromCardId());
+            cardIds.add(request.getToCardId());
+        }
+        Map<Long, Card> cards = cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        List<BatchTransferResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest request = chunk.get(i);
+            try {
+                Card fromCard = getLoadedCard(cards, request.getFromCardId());
+                Card toCard = getLoadedCard(cards, request.getToCardId());
+
+                performTransferChecks(fromCard, toCard, request.getAmount());
+                moveFunds(fromCard, toCard, request.getAmount());
 
-        transactionRepository.save(transaction);
+                transactions.add(newTransaction(fromCard, toCard, request.getAmount(), request.getDescription()));
+                results.add(batchResult(offset + i, request, BATCH_SUCCESS, null));
+            } catch (ResourceNotFoundException | IllegalStateException | InsufficientFundsException e) {
+                // Проверки выполняются до изменения балансов, поэтому отклонённый перевод ничего не меняет в чанке
+                results.add(batchResult(offset + i, request, BATCH_FAILED, e.getMessage()));
+            } catch (RuntimeException e) {
+                // Непредвиденная ошибка откатывает весь чанк; индекс нужен, чтобы причину получил именно этот перевод
+                throw new ChunkItemException(offset + i, e);
+            }
+        }
+
+        // Обновления карт и вставки транзакций уходят JDBC-батчами при коммите (hibernate.jdbc.batch_size)
+        saveTransactions(transactions, cardOwners(transactions.stream()
+                .flatMap(transaction -> Stream.of(transaction.getFromCard(), transaction.getToCard()))
+                .toList()));
+        return results;
+    }
+
+    private BatchTransferResult batchResult(int index, TransferRequest request, String status, String message) {
+        return new BatchTransferResult(index, request.getFromCardId(), request.getToCardId(), status, message);
+    }
+
+    private static final class ChunkItemException extends RuntimeException {
+
+        private final int index;
+
+        private ChunkItemException(int index, RuntimeException cause) {
+            super(cause);
+            this.index = index;
+        }
     }
 }
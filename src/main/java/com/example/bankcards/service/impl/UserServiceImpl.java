@@ -6,12 +6,14 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.UserRole;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.TokenVersionCache;
 import com.example.bankcards.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +25,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final TokenVersionCache tokenVersionCache;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -61,12 +64,17 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
+        boolean revokeTokens = !user.getActive().equals(userDetails.getActive());
         user.setFirstName(userDetails.getFirstName());
         user.setLastName(userDetails.getLastName());
         user.setActive(userDetails.getActive());
 
         if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+            revokeTokens = true;
+        }
+        if (revokeTokens) {
+            revokeTokens(user);
         }
 
         User updatedUser = userRepository.save(user);
@@ -77,6 +85,7 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        revokeTokens(user);
         userRepository.delete(user);
     }
 
@@ -85,6 +94,14 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         user.setActive(false);
+        revokeTokens(user);
         userRepository.save(user);
     }
+
+    // Выданные пользователю JWT перестают приниматься: на этом узле после коммита, на остальных после обновления кэша
+    private void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        user.setTokenVersionChangedAt(LocalDateTime.now());
+        tokenVersionCache.update(user.getId(), user.getTokenVersion(), user.getActive());
+    }
 }
\ No newline at end of file
@@ -4,41 +4,74 @@ import java.util.Random;
 
 public class CardNumberGenerator {
 
-    private static final String BIN = "4"; // Visa cards start with 4
+    private static final char BIN = '4'; // Visa cards start with 4
     private static final int CARD_LENGTH = 16;
     private static final Random random = new Random();
 
-    public static String generate() {
-        StringBuilder cardNumber = new StringBuilder(BIN);
+    // Между BIN и контрольной цифрой остаётся 14 цифр номера счёта
+    public static final long ACCOUNT_NUMBER_SPACE = 100_000_000_000_000L;
 
-        for (int i = 0; i < CARD_LENGTH - 1; i++) {
-            int digit = random.nextInt(10);
-            cardNumber.append(digit);
-        }
-
-        int checkDigit = calculateCheckDigit(cardNumber.toString());
-        cardNumber.append(checkDigit);
+    private static final long HALF_SPACE = 10_000_000L;
+    private static final int FEISTEL_ROUNDS = 6;
 
-        return cardNumber.toString();
-    }
+    /**
+     * Builds a Luhn-valid card number from an account number in [0, {@link #ACCOUNT_NUMBER_SPACE}).
+     * Distinct account numbers always give distinct card numbers.
+     */
+    public static String fromAccountNumber(long accountNumber) {
+        if (accountNumber < 0 || accountNumber >= ACCOUNT_NUMBER_SPACE) {
+            throw new IllegalArgumentException("Account number out of range: " + accountNumber);
+        }
 
-    private static int calculateCheckDigit(String number) {
+        char[] digits = new char[CARD_LENGTH];
+        digits[0] = BIN;
         int sum = 0;
-        boolean alternate = false;
-
-        for (int i = number.length() - 1; i >= 0; i--) {
-            int n = Integer.parseInt(number.substring(i, i + 1));
-            if (alternate) {
-                n *= 2;
-                if (n > 9) {
-                    n = (n % 10) + 1;
+        long rest = accountNumber;
+        // Цифры заполняются справа налево; удваивается каждая вторая, начиная с ближайшей к контрольной
+        for (int i = CARD_LENGTH - 2; i >= 0; i--) {
+            int digit;
+            if (i == 0) {
+                digit = BIN - '0';
+            } else {
+                digit = (int) (rest % 10);
+                rest /= 10;
+                digits[i] = (char) ('0' + digit);
+            }
+            if ((CARD_LENGTH - 2 - i) % 2 == 0) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
                 }
             }
-            sum += n;
-            alternate = !alternate;
+            sum += digit;
         }
+        digits[CARD_LENGTH - 1] = (char) ('0' + (10 - sum % 10) % 10);
+
+        return new String(digits);
+    }
+
+    /**
+     * Format-preserving permutation of [0, {@link #ACCOUNT_NUMBER_SPACE}): a balanced Feistel network
+     * over two 7-digit halves. Sequential inputs map to unrelated-looking outputs without collisions.
+     */
+    public static long permute(long accountNumber, long key) {
+        long left = accountNumber / HALF_SPACE;
+        long right = accountNumber % HALF_SPACE;
+        for (int round = 0; round < FEISTEL_ROUNDS; round++) {
+            long next = (left + roundFunction(right, key, round)) % HALF_SPACE;
+            left = right;
+            right = next;
+        }
+        return left * HALF_SPACE + right;
+    }
 
-        return (10 - (sum % 10)) % 10;
+    private static long roundFunction(long half, long key, int round) {
+        // Финализатор SplitMix64
+        long z = half * 0x9E3779B97F4A7C15L + key + round * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return Math.floorMod(z, HALF_SPACE);
     }
 
     public static String generateCVV() {
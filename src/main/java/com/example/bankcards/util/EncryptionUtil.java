@@ -6,6 +6,12 @@ import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import java.util.Base64;
 
+/**
+ * Former AES/ECB encryption with a hard-coded key. Kept only for Liquibase migrations, which run
+ * before the Spring context exists and only see values in this format; use {@code EncryptionService}
+ * everywhere else.
+ */
+@Deprecated
 public class EncryptionUtil {
 
     private static final String ALGORITHM = "AES";
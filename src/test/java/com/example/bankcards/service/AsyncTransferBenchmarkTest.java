@@ -0,0 +1,93 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.InsufficientFundsException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Synchronous vs. partitioned asynchronous transfers over a few hot cards.
+ * Run with: mvn test -Pbenchmark -Dtest=AsyncTransferBenchmarkTest
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class AsyncTransferBenchmarkTest extends CardTestSupport {
+
+    private static final int HOT_CARDS = 4;
+    private static final int CLIENT_THREADS = 32;
+    private static final int TRANSFERS = 4_000;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @BeforeEach
+    void createCards() {
+        createCards(HOT_CARDS, "BENCHMARK", INITIAL_BALANCE);
+    }
+
+    @Test
+    void synchronousVersusAsynchronousThroughput() throws InterruptedException {
+        long syncMs = run(request -> {
+            try {
+                transferService.transferBetweenUserCards(userId, request);
+            } catch (InsufficientFundsException ignored) {
+                // не влияет на замер
+            }
+        });
+
+        Queue<String> submitted = new ConcurrentLinkedQueue<>();
+        long asyncStarted = System.nanoTime();
+        long submitMs = run(request -> submitted.add(asyncTransferService.submit(userId, request).getTransferId()));
+        for (String transferId : submitted) {
+            while ("PENDING".equals(asyncTransferService.getStatus(userId, transferId).getStatus())) {
+                Thread.sleep(1);
+            }
+        }
+        long asyncMs = (System.nanoTime() - asyncStarted) / 1_000_000;
+
+        // Переводы идут по кругу между горячими картами: деньги не появляются и не пропадают
+        BigDecimal total = cardRepository.findAllById(cardIds).stream()
+                .map(Card::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(HOT_CARDS)).compareTo(total));
+        assertEquals(TRANSFERS, submitted.size());
+
+        log.info("Synchronous: {} transfers in {} ms ({}/s)", TRANSFERS, syncMs, TRANSFERS * 1000L / Math.max(syncMs, 1));
+        log.info("Asynchronous: {} transfers accepted in {} ms, applied in {} ms ({}/s)",
+                TRANSFERS, submitMs, asyncMs, TRANSFERS * 1000L / Math.max(asyncMs, 1));
+    }
+
+    private long run(Consumer<TransferRequest> action) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        long started = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            TransferRequest request = new TransferRequest(cardIds.get(i % HOT_CARDS), cardIds.get((i + 1) % HOT_CARDS),
+                    BigDecimal.ONE, "Benchmark");
+            clients.submit(() -> action.accept(request));
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES));
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
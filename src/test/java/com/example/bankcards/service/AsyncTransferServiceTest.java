@@ -0,0 +1,108 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.TransferQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Одна секция с очередью на один перевод: заполнить очередь можно детерминированно
+@SpringBootTest(properties = {"transfer.async.partitions=1", "transfer.async.queue-capacity=1"})
+public class AsyncTransferServiceTest extends CardTestSupport {
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "ASYNC TEST", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void acceptedTransferIsCompleted() throws InterruptedException {
+        AsyncTransferResponse pending = asyncTransferService.submit(userId,
+                new TransferRequest(cardIds.get(0), cardIds.get(1), new BigDecimal("30.00"), null));
+        assertEquals("PENDING", pending.getStatus());
+
+        AsyncTransferResponse done = awaitCompletion(pending.getTransferId());
+
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals(0, new BigDecimal("70.00").compareTo(cardRepository.findById(cardIds.get(0)).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void rejectedTransferFailsWithReason() throws InterruptedException {
+        AsyncTransferResponse pending = asyncTransferService.submit(userId,
+                new TransferRequest(cardIds.get(0), cardIds.get(1), new BigDecimal("1000.00"), null));
+
+        AsyncTransferResponse done = awaitCompletion(pending.getTransferId());
+
+        assertEquals("FAILED", done.getStatus());
+        assertEquals("Insufficient funds on source card", done.getMessage());
+        assertEquals(0, new BigDecimal("100.00").compareTo(cardRepository.findById(cardIds.get(0)).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void transferOfAnotherUserIsNotFound() throws InterruptedException {
+        AsyncTransferResponse pending = asyncTransferService.submit(userId,
+                new TransferRequest(cardIds.get(0), cardIds.get(1), BigDecimal.ONE, null));
+        awaitCompletion(pending.getTransferId());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> asyncTransferService.getStatus(userId + 1, pending.getTransferId()));
+    }
+
+    @Test
+    void fullQueueIsRejected() throws InterruptedException {
+        Long source = cardIds.get(0);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Строка карты списания заблокирована: воркер секции повисает на первом переводе
+        Thread lockHolder = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            cardRepository.findAllByIdForUpdate(List.of(source));
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        lockHolder.start();
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        TransferRequest request = new TransferRequest(source, cardIds.get(1), BigDecimal.ONE, null);
+        String running = asyncTransferService.submit(userId, request).getTransferId();
+        String queued = asyncTransferService.submit(userId, request).getTransferId();
+        try {
+            assertThrows(TransferQueueFullException.class, () -> asyncTransferService.submit(userId, request));
+        } finally {
+            release.countDown();
+            lockHolder.join();
+        }
+
+        assertEquals("COMPLETED", awaitCompletion(running).getStatus());
+        assertEquals("COMPLETED", awaitCompletion(queued).getStatus());
+    }
+
+    private AsyncTransferResponse awaitCompletion(String transferId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        AsyncTransferResponse response = asyncTransferService.getStatus(userId, transferId);
+        while ("PENDING".equals(response.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            response = asyncTransferService.getStatus(userId, transferId);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardCreateResponse;
+import com.example.bankcards.dto.BulkCardCreateResult;
+import com.example.bankcards.dto.CardCreateRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of bulk card issuance.
+ * Run with: mvn test -Pbenchmark -Dtest=BulkCardCreateBenchmarkTest
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class BulkCardCreateBenchmarkTest extends CardTestSupport {
+
+    private static final int CARDS = 100_000;
+
+    @Test
+    void bulkCreateThroughput() {
+        List<CardCreateRequest> requests = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            requests.add(new CardCreateRequest("BENCHMARK", LocalDate.now().plusYears(3), BigDecimal.ZERO, userId));
+        }
+
+        long started = System.nanoTime();
+        BulkCardCreateResponse response = cardService.bulkCreateCards(requests);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        response.getResults().stream().map(BulkCardCreateResult::getCardId).forEach(cardIds::add);
+
+        assertEquals(CARDS, response.getSucceeded());
+        assertEquals(CARDS, cardIds.stream().distinct().count());
+        log.info("Issued {} cards in {} ms ({} cards/s)", CARDS, elapsedMs, CARDS * 1000L / Math.max(elapsedMs, 1));
+    }
+}
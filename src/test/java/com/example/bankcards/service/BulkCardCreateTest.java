@@ -0,0 +1,67 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardCreateResponse;
+import com.example.bankcards.dto.BulkCardCreateResult;
+import com.example.bankcards.dto.CardCreateRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "cards.bulk.chunk-size=2")
+public class BulkCardCreateTest extends CardTestSupport {
+
+    @Test
+    void validRowsAreIssuedAndUnknownUsersAreReportedPerRow() {
+        LocalDate expiration = LocalDate.now().plusYears(3);
+        BulkCardCreateResponse response = cardService.bulkCreateCards(List.of(
+                new CardCreateRequest("BULK TEST 0", expiration, new BigDecimal("10.00"), userId),
+                new CardCreateRequest("BULK TEST 1", expiration, BigDecimal.ZERO, Long.MAX_VALUE),
+                new CardCreateRequest("BULK TEST 2", expiration, BigDecimal.ZERO, userId),
+                new CardCreateRequest("BULK TEST 3", expiration, BigDecimal.ZERO, userId)
+        ));
+        response.getResults().stream().map(BulkCardCreateResult::getCardId).filter(Objects::nonNull).forEach(cardIds::add);
+
+        assertEquals(3, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals("User not found with id: " + Long.MAX_VALUE, response.getResults().get(1).getMessage());
+        assertNull(response.getResults().get(1).getCardId());
+
+        List<Card> cards = cardRepository.findAllById(cardIds);
+        assertEquals(3, cards.stream().map(Card::getCardNumberHash).distinct().count());
+        Card first = cardRepository.findById(response.getResults().get(0).getCardId()).orElseThrow();
+        assertEquals("BULK TEST 0", first.getCardHolder());
+        assertEquals("**** **** **** " + first.getCardLast4(), response.getResults().get(0).getMaskedCardNumber());
+    }
+
+    @Test
+    void unexpectedFailureRollsBackOnlyItsChunk() {
+        LocalDate expiration = LocalDate.now().plusYears(3);
+        // Пустой баланс роняет запись журнала NullPointerException во второй пачке
+        BulkCardCreateResponse response = cardService.bulkCreateCards(List.of(
+                new CardCreateRequest("BULK TEST 0", expiration, BigDecimal.ZERO, userId),
+                new CardCreateRequest("BULK TEST 1", expiration, BigDecimal.ZERO, userId),
+                new CardCreateRequest("BULK TEST 2", expiration, null, userId),
+                new CardCreateRequest("BULK TEST 3", expiration, BigDecimal.ZERO, userId)
+        ));
+        response.getResults().stream().map(BulkCardCreateResult::getCardId).filter(Objects::nonNull).forEach(cardIds::add);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        // Причина отката попадает в сообщение каждой строки пачки
+        String message = response.getResults().get(2).getMessage();
+        assertTrue(message.startsWith("Chunk transaction was rolled back: "));
+        assertTrue(message.length() > "Chunk transaction was rolled back: ".length());
+        assertEquals(message, response.getResults().get(3).getMessage());
+        assertEquals(2, cardRepository.findAllById(cardIds).size());
+    }
+}
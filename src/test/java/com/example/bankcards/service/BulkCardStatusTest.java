@@ -0,0 +1,93 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkCardStatusResponse;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "cards.bulk.status-chunk-size=2")
+public class BulkCardStatusTest extends CardTestSupport {
+
+    @BeforeEach
+    void createCards() {
+        createCards(3, "BULK STATUS TEST", BigDecimal.ZERO);
+        // Истёкшая карта: срок в прошлом, но статус ещё не выставлен планировщиком
+        Card expired = cardRepository.findById(createCard("BULK STATUS TEST", LocalDate.now().plusYears(3), BigDecimal.ZERO))
+                .orElseThrow();
+        expired.setExpirationDate(LocalDate.now().minusDays(1));
+        cardRepository.save(expired);
+    }
+
+    @Test
+    void blockByIdsSkipsExpiredAndAlreadyBlockedCards() {
+        cardService.blockCard(cardIds.get(0), userId);
+
+        BulkCardStatusResponse response = cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.BLOCK, null, cardIds, null));
+
+        assertEquals(4, response.getMatched());
+        assertEquals(2, response.getUpdated());
+        assertEquals(2, response.getSkipped());
+        assertEquals(2, response.getChunks());
+        assertEquals(Boolean.TRUE, card(1).getIsBlocked());
+        assertEquals(CardStatus.BLOCKED, card(2).getStatus());
+        assertEquals(Boolean.FALSE, card(3).getIsBlocked());
+    }
+
+    @Test
+    void unblockByFilterMarksExpiredCardsAsExpired() {
+        Card expired = card(3);
+        expired.setIsBlocked(true);
+        expired.setStatus(CardStatus.BLOCKED);
+        cardRepository.save(expired);
+        cardService.blockCard(cardIds.get(1), userId);
+
+        CardSearchFilter filter = new CardSearchFilter(null, true, userId, null, null, "bulk status");
+        BulkCardStatusResponse response = cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.UNBLOCK, null, null, filter));
+
+        assertEquals(2, response.getUpdated());
+        assertEquals(CardStatus.ACTIVE, card(1).getStatus());
+        assertEquals(Boolean.FALSE, card(3).getIsBlocked());
+        assertEquals(CardStatus.EXPIRED, card(3).getStatus());
+    }
+
+    @Test
+    void setStatusUpdatesOnlyCardsWithAnotherStatus() {
+        cardService.updateCardStatus(cardIds.get(0), CardStatus.EXPIRED);
+
+        BulkCardStatusResponse response = cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.SET_STATUS, CardStatus.EXPIRED, cardIds, null));
+
+        assertEquals(3, response.getUpdated());
+        assertEquals(1, response.getSkipped());
+        assertEquals(CardStatus.EXPIRED, card(2).getStatus());
+    }
+
+    @Test
+    void requestMustSelectCardsExactlyOnce() {
+        assertThrows(IllegalArgumentException.class, () -> cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.BLOCK, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.BLOCK, null, null, new CardSearchFilter())));
+        assertThrows(IllegalArgumentException.class, () -> cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.SET_STATUS, null, cardIds, null)));
+        assertThrows(IllegalArgumentException.class, () -> cardService.bulkUpdateCards(
+                new BulkCardStatusRequest(BulkCardAction.BLOCK, null, Arrays.asList(cardIds.get(0), null), null)));
+    }
+
+    private Card card(int index) {
+        return cardRepository.findById(cardIds.get(index)).orElseThrow();
+    }
+}
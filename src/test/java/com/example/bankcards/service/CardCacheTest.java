@@ -0,0 +1,86 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardCreateRequest;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.TransferRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class CardCacheTest extends CardTestSupport {
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "CACHE TEST", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void repeatedReadIsServedFromCacheAndTransferEvictsIt() {
+        Long first = cardIds.get(0);
+        double hitsBefore = hits("cards.by-id");
+
+        cardService.getCardById(first);
+        CardDto cached = cardService.getCardById(first);
+
+        assertEquals(hitsBefore + 1, hits("cards.by-id"));
+        assertEquals(0, new BigDecimal("100.00").compareTo(cached.getBalance()));
+
+        transferService.transferBetweenUserCards(userId, new TransferRequest(first, cardIds.get(1), BigDecimal.TEN, null));
+
+        assertEquals(0, new BigDecimal("90.00").compareTo(cardService.getCardById(first).getBalance()));
+    }
+
+    @Test
+    void userCardPagesAreEvictedByCardChanges() {
+        Pageable pageable = PageRequest.of(0, 100, Sort.by("id"));
+        Long first = cardIds.get(0);
+        assertEquals(Boolean.FALSE, find(cardService.getUserCards(userId, pageable).getContent(), first).getIsBlocked());
+
+        cardService.blockCard(first, userId);
+        assertEquals(Boolean.TRUE, find(cardService.getUserCards(userId, pageable).getContent(), first).getIsBlocked());
+
+        cardIds.add(cardService.createCard(new CardCreateRequest(
+                "CACHE TEST", LocalDate.now().plusYears(3), BigDecimal.ZERO, userId)).getId());
+        List<Long> pageIds = cardService.getUserCards(userId, pageable).getContent().stream().map(CardDto::getId).toList();
+        assertTrue(pageIds.containsAll(cardIds));
+    }
+
+    @Test
+    void transferEvictsOwnersPages() {
+        Pageable pageable = PageRequest.of(0, 100, Sort.by("id"));
+        Long first = cardIds.get(0);
+        cardService.getUserCards(userId, pageable);
+
+        transferService.transferBetweenCards(new TransferRequest(first, cardIds.get(1), BigDecimal.TEN, null));
+
+        CardDto card = find(cardService.getUserCards(userId, pageable).getContent(), first);
+        assertEquals(0, new BigDecimal("90.00").compareTo(card.getBalance()));
+    }
+
+    private double hits(String cache) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count();
+    }
+
+    private static CardDto find(List<CardDto> cards, Long cardId) {
+        return cards.stream().filter(card -> card.getId().equals(cardId)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardExpiryReport;
+import com.example.bankcards.entity.SchedulerLock;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "cards.expiry.chunk-size=1")
+public class CardExpiryTest extends CardTestSupport {
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @BeforeEach
+    void createCards() {
+        for (int i = 0; i < 3; i++) {
+            createCard("EXPIRY TEST", LocalDate.now().minusDays(1), BigDecimal.ZERO);
+        }
+        createCard("EXPIRY TEST", LocalDate.now().plusYears(3), BigDecimal.ZERO);
+    }
+
+    @AfterEach
+    void deleteLocks() {
+        schedulerLockRepository.deleteAll();
+    }
+
+    @Test
+    void expiredCardsAreMarkedInChunksAndOnlyOnce() {
+        CardExpiryReport report = cardService.checkExpiredCards();
+
+        assertTrue(report.isLockAcquired());
+        assertTrue(report.getCardsExpired() >= 3);
+        assertTrue(report.getChunksProcessed() >= 3);
+        for (Long cardId : cardIds.subList(0, 3)) {
+            assertEquals(CardStatus.EXPIRED, cardRepository.findById(cardId).orElseThrow().getStatus());
+        }
+        assertEquals(CardStatus.ACTIVE, cardRepository.findById(cardIds.get(3)).orElseThrow().getStatus());
+
+        assertEquals(0, cardService.checkExpiredCards().getCardsExpired());
+    }
+
+    @Test
+    void runIsSkippedWhileAnotherNodeHoldsTheLease() {
+        schedulerLockRepository.save(new SchedulerLock("card-expiry", "other-node", LocalDateTime.now().plusMinutes(5)));
+
+        CardExpiryReport report = cardService.checkExpiredCards();
+
+        assertFalse(report.isLockAcquired());
+        assertEquals(CardStatus.ACTIVE, cardRepository.findById(cardIds.get(0)).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.security.CardNumberHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class CardNumberHashTest extends CardTestSupport {
+
+    @Autowired
+    private CardNumberHasher cardNumberHasher;
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    private Long cardId;
+
+    @BeforeEach
+    void createCard() {
+        cardId = createCard("HASH TEST", LocalDate.now().plusYears(3), BigDecimal.ZERO);
+    }
+
+    @Test
+    void cardIsFoundByFullNumberInAnyGrouping() {
+        String cardNumber = encryptionService.decrypt(cardRepository.findById(cardId).orElseThrow().getEncryptedCardNumber());
+        String grouped = cardNumber.replaceAll("(\\d{4})(?=\\d)", "$1 ");
+
+        CardDto found = cardService.findCardByNumber(grouped);
+        assertEquals(cardId, found.getId());
+        assertEquals("**** **** **** " + cardNumber.substring(cardNumber.length() - 4), found.getMaskedCardNumber());
+        assertThrows(ResourceNotFoundException.class, () -> cardService.findCardByNumber("4000000000000000"));
+    }
+
+    @Test
+    void backfillHashesCardsCreatedBeforeTheIndex() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createNativeQuery("UPDATE cards SET card_number_hash = NULL WHERE id = " + cardId)
+                .executeUpdate());
+
+        while (cardService.backfillCardNumberHashes(100) > 0) {
+            // заполняем, пока есть карты без хэша
+        }
+
+        Card card = cardRepository.findById(cardId).orElseThrow();
+        assertEquals(cardNumberHasher.hash(encryptionService.decrypt(card.getEncryptedCardNumber())), card.getCardNumberHash());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResponse;
+import com.example.bankcards.entity.enums.CardStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class CardSearchTest extends CardTestSupport {
+
+    @BeforeEach
+    void createCards() {
+        for (int i = 0; i < 5; i++) {
+            createCard("SEARCH_TEST " + i, LocalDate.now().plusYears(i + 1), BigDecimal.ZERO);
+        }
+        cardService.updateCardStatus(cardIds.get(4), CardStatus.BLOCKED);
+    }
+
+    @Test
+    void filteredSearchIsPagedByIdCursor() {
+        CardSearchFilter filter = new CardSearchFilter(CardStatus.ACTIVE, null, userId, null, null, "search_test");
+
+        List<Long> found = new ArrayList<>();
+        CardSearchResponse page = cardService.searchCards(filter, null, 2);
+        while (true) {
+            page.getCards().stream().map(CardDto::getId).forEach(found::add);
+            if (page.getNextAfterId() == null) {
+                break;
+            }
+            page = cardService.searchCards(filter, page.getNextAfterId(), 2);
+        }
+
+        assertEquals(cardIds.subList(0, 4), found);
+    }
+
+    @Test
+    void expirationRangeAndPrefixNarrowTheResult() {
+        CardSearchFilter filter = new CardSearchFilter(null, null, null,
+                LocalDate.now().plusYears(2), LocalDate.now().plusYears(3), "SEARCH_TEST");
+
+        CardSearchResponse response = cardService.searchCards(filter, null, 10);
+
+        assertEquals(List.of(cardIds.get(1), cardIds.get(2)), response.getCards().stream().map(CardDto::getId).toList());
+        assertNull(response.getNextAfterId());
+        CardDto card = response.getCards().get(0);
+        assertTrue(card.getMaskedCardNumber().matches("\\*{4} \\*{4} \\*{4} \\d{4}"), card.getMaskedCardNumber());
+        assertEquals("SEARCH_TEST 1", card.getCardHolder());
+    }
+
+    @Test
+    void likeWildcardsInPrefixAreMatchedLiterally() {
+        CardSearchFilter filter = new CardSearchFilter(null, null, null, null, null, "SEARCH%TEST");
+
+        assertTrue(cardService.searchCards(filter, null, 10).getCards().isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardCreateRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixture of service tests: cards of user1 created through {@link CardService} and removed
+ * after each test together with everything recorded about them. Ledger entries, outbox events and
+ * idempotency keys have no foreign keys to cards and are deleted explicitly; balance checkpoints and
+ * daily totals go with the card rows through their cascading foreign keys.
+ * Subclass {@code @AfterEach} methods run before the cleanup.
+ */
+public abstract class CardTestSupport {
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    // Порядок важен: события переводов находятся через transactions, поэтому удаляются до них
+    private static final List<String> CLEANUP = List.of(
+            "DELETE FROM outbox_events WHERE event_type <> 'TRANSFER_COMPLETED' AND aggregate_id = ANY(:ids)",
+            "DELETE FROM outbox_events WHERE event_type = 'TRANSFER_COMPLETED' AND aggregate_id IN " +
+                    "(SELECT id FROM transactions WHERE from_card_id = ANY(:ids) OR to_card_id = ANY(:ids))",
+            "DELETE FROM ledger_entries WHERE card_id = ANY(:ids)",
+            "DELETE FROM idempotency_keys WHERE from_card_id = ANY(:ids) OR to_card_id = ANY(:ids)",
+            "DELETE FROM transactions WHERE from_card_id = ANY(:ids) OR to_card_id = ANY(:ids)",
+            "DELETE FROM cards WHERE id = ANY(:ids)"
+    );
+
+    @Autowired
+    protected CardService cardService;
+
+    @Autowired
+    protected CardRepository cardRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    // Карты, созданные в обход createCard (например, массовым выпуском), добавляются сюда же
+    protected final List<Long> cardIds = new ArrayList<>();
+
+    protected Long userId;
+
+    @BeforeEach
+    void loadUser() {
+        User user1 = userRepository.findByUsername("user1")
+                .orElseThrow(() -> new RuntimeException("User1 not found"));
+        userId = user1.getId();
+    }
+
+    protected Long createCard(String cardHolder, LocalDate expirationDate, BigDecimal balance) {
+        Long cardId = cardService.createCard(new CardCreateRequest(cardHolder, expirationDate, balance, userId)).getId();
+        cardIds.add(cardId);
+        return cardId;
+    }
+
+    protected void createCards(int count, String cardHolder, BigDecimal balance) {
+        for (int i = 0; i < count; i++) {
+            createCard(cardHolder, LocalDate.now().plusYears(3), balance);
+        }
+    }
+
+    // Удаление идёт мимо CardService, поэтому кэш карт не сбрасывается: id не переиспользуются,
+    // а страницы user1 сбрасывает createCard следующего теста
+    @AfterEach
+    void deleteCards() {
+        for (int offset = 0; offset < cardIds.size(); offset += DELETE_CHUNK_SIZE) {
+            Long[] ids = cardIds.subList(offset, Math.min(offset + DELETE_CHUNK_SIZE, cardIds.size())).toArray(Long[]::new);
+            transactionTemplate.executeWithoutResult(status -> CLEANUP.forEach(sql ->
+                    entityManager.createNativeQuery(sql).setParameter("ids", ids).executeUpdate()));
+        }
+        cardIds.clear();
+    }
+}
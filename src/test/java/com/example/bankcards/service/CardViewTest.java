@@ -0,0 +1,50 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "cards.cache.max-size=0")
+public class CardViewTest extends CardTestSupport {
+
+    private CardDto created;
+
+    @BeforeEach
+    void createCard() {
+        created = cardService.getCardById(createCard("VIEW TEST", LocalDate.now().plusYears(3), new BigDecimal("12.50")));
+    }
+
+    @Test
+    void readsDoNotLoadEntitiesIntoPersistenceContext() {
+        int managedEntities = transactionTemplate.execute(status -> {
+            CardDto card = cardService.getUserCardById(userId, created.getId());
+            assertEquals(created.getMaskedCardNumber(), card.getMaskedCardNumber());
+            assertEquals(0, created.getBalance().compareTo(card.getBalance()));
+
+            CardDto listed = cardService.getUserCards(userId, PageRequest.of(0, 100, Sort.by("id").descending()))
+                    .getContent().get(0);
+            assertEquals(created.getId(), listed.getId());
+            assertEquals("VIEW TEST", listed.getCardHolder());
+
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertEquals(0, managedEntities);
+    }
+
+    @Test
+    void cardOfAnotherUserIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> cardService.getUserCardById(userId + 1, created.getId()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.service.impl.EncryptionServiceImpl;
+import com.example.bankcards.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Former static EncryptionUtil vs. EncryptionService. Allocation per operation is reported by the
+ * GC profiler (gc.alloc.rate.norm). Run with: mvn test -Pbenchmark -Dtest=EncryptionBenchmarkTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@SuppressWarnings("deprecation")
+public class EncryptionBenchmark {
+
+    private static final String CARD_NUMBER = "4111222233334444";
+    private static final int BULK_SIZE = 100;
+
+    private EncryptionService encryptionService;
+    private String legacyCiphertext;
+    private String gcmCiphertext;
+    private List<String> gcmBulk;
+
+    @Setup
+    public void setUp() {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setActiveKeyId(1);
+        properties.setKeys(Map.of(1, "LT8HL4dDpVBVqDkomFzoSVy/HDJl92LXW3jBOxJ8ERU="));
+        properties.setLegacyKey("BankCardSecretKeyExample");
+        encryptionService = new EncryptionServiceImpl(properties);
+
+        legacyCiphertext = EncryptionUtil.encrypt(CARD_NUMBER);
+        gcmCiphertext = encryptionService.encrypt(CARD_NUMBER);
+        gcmBulk = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            gcmBulk.add(encryptionService.encrypt(CARD_NUMBER));
+        }
+    }
+
+    @Benchmark
+    public String utilEncrypt() {
+        return EncryptionUtil.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String utilDecrypt() {
+        return EncryptionUtil.decrypt(legacyCiphertext);
+    }
+
+    @Benchmark
+    public String serviceEncrypt() {
+        return encryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String serviceDecrypt() {
+        return encryptionService.decrypt(gcmCiphertext);
+    }
+
+    @Benchmark
+    public String serviceDecryptLegacy() {
+        return encryptionService.decrypt(legacyCiphertext);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<String> serviceDecryptAll() {
+        return encryptionService.decryptAll(gcmBulk);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Launches {@link EncryptionBenchmark}.
+ * Run with: mvn test -Pbenchmark -Dtest=EncryptionBenchmarkTest
+ */
+@Tag("benchmark")
+public class EncryptionBenchmarkTest {
+
+    @Test
+    void encryptionThroughputAndAllocation() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EncryptionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
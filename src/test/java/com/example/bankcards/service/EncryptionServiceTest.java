@@ -0,0 +1,58 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.service.impl.EncryptionServiceImpl;
+import com.example.bankcards.util.EncryptionUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EncryptionServiceTest {
+
+    private static final String KEY_1 = "LT8HL4dDpVBVqDkomFzoSVy/HDJl92LXW3jBOxJ8ERU=";
+    private static final String KEY_2 = "q3J2b0dqV1N6bWZ0cGV4c2l1Z2h0a2V5LTIwMjQhIT0=";
+    private static final String CARD_NUMBER = "4111222233334444";
+
+    @Test
+    void encryptionIsRandomizedAndReversible() {
+        EncryptionService service = service(1, Map.of(1, KEY_1));
+
+        String first = service.encrypt(CARD_NUMBER);
+        String second = service.encrypt(CARD_NUMBER);
+
+        assertTrue(first.startsWith("v1:"));
+        assertNotEquals(first, second);
+        assertEquals(List.of(CARD_NUMBER, CARD_NUMBER), service.decryptAll(List.of(first, second)));
+    }
+
+    @Test
+    void valuesEncryptedWithRetiredKeyStayReadableAfterRotation() {
+        String encryptedWithKey1 = service(1, Map.of(1, KEY_1)).encrypt(CARD_NUMBER);
+
+        EncryptionService rotated = service(2, Map.of(1, KEY_1, 2, KEY_2));
+
+        assertTrue(rotated.encrypt(CARD_NUMBER).startsWith("v2:"));
+        assertEquals(CARD_NUMBER, rotated.decrypt(encryptedWithKey1));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void legacyEcbValuesAreDecrypted() {
+        EncryptionService service = service(1, Map.of(1, KEY_1));
+
+        assertEquals(CARD_NUMBER, service.decrypt(EncryptionUtil.encrypt(CARD_NUMBER)));
+    }
+
+    private EncryptionService service(int activeKeyId, Map<Integer, String> keys) {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setActiveKeyId(activeKeyId);
+        properties.setKeys(keys);
+        properties.setLegacyKey("BankCardSecretKeyExample");
+        return new EncryptionServiceImpl(properties);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.entity.IdempotencyRecordId;
+import com.example.bankcards.entity.enums.IdempotencyStatus;
+import com.example.bankcards.exception.IdempotencyConflictException;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class IdempotencyServiceTest {
+
+    private static final Long USER_ID = -1L;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String key = UUID.randomUUID().toString();
+
+    @AfterEach
+    void deleteKey() {
+        idempotencyRecordRepository.deleteById(new IdempotencyRecordId(USER_ID, key));
+    }
+
+    @Test
+    void repeatedKeyReturnsStoredResponseWithoutRunningTransferAgain() {
+        TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("10.00"), null);
+        AtomicInteger executions = new AtomicInteger();
+
+        TransferResponse first = idempotencyService.execute(USER_ID, key, request, () -> {
+            executions.incrementAndGet();
+            return new TransferResponse("success", 1L, 2L, request.getAmount(), null, LocalDateTime.now());
+        });
+        TransferResponse second = idempotencyService.execute(USER_ID, key, request, () -> {
+            executions.incrementAndGet();
+            return new TransferResponse("success", 1L, 2L, request.getAmount(), null, LocalDateTime.now());
+        });
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getTimestamp(), second.getTimestamp());
+    }
+
+    @Test
+    void keyCannotBeReusedForDifferentRequest() {
+        TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("10.00"), "Rent");
+        idempotencyService.execute(USER_ID, key, request,
+                () -> new TransferResponse("success", 1L, 2L, request.getAmount(), "Rent", LocalDateTime.now()));
+
+        TransferRequest other = new TransferRequest(1L, 2L, new BigDecimal("20.00"), "Rent");
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(USER_ID, key, other,
+                () -> new TransferResponse("success", 1L, 2L, other.getAmount(), "Rent", LocalDateTime.now())));
+    }
+
+    @Test
+    void failedTransferReleasesKey() {
+        TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("10.00"), null);
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(USER_ID, key, request, () -> {
+            throw new IllegalStateException("Source card is not active");
+        }));
+
+        TransferResponse response = idempotencyService.execute(USER_ID, key, request,
+                () -> new TransferResponse("success", 1L, 2L, request.getAmount(), null, LocalDateTime.now()));
+        assertEquals("success", response.getStatus());
+    }
+
+    @Test
+    void pendingKeyIsTakenOverOnlyAfterTimeout() {
+        TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("10.00"), null);
+        LocalDateTime now = LocalDateTime.now();
+        reserve(request, now.minusMinutes(1));
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(USER_ID, key, request,
+                () -> new TransferResponse("success", 1L, 2L, request.getAmount(), null, LocalDateTime.now())));
+
+        // Узел, зарезервировавший ключ, умер до коммита перевода
+        idempotencyRecordRepository.deleteById(new IdempotencyRecordId(USER_ID, key));
+        reserve(request, now.minusHours(1));
+        TransferResponse response = idempotencyService.execute(USER_ID, key, request,
+                () -> new TransferResponse("success", 1L, 2L, request.getAmount(), null, LocalDateTime.now()));
+
+        assertEquals("success", response.getStatus());
+        assertEquals(IdempotencyStatus.COMPLETED,
+                idempotencyRecordRepository.findById(new IdempotencyRecordId(USER_ID, key)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void stalePendingKeyIsNotTakenOverByDifferentRequest() {
+        TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("10.00"), "Rent");
+        reserve(request, LocalDateTime.now().minusHours(1));
+
+        TransferRequest other = new TransferRequest(1L, 2L, new BigDecimal("20.00"), "Rent");
+        AtomicInteger executions = new AtomicInteger();
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(USER_ID, key, other, () -> {
+            executions.incrementAndGet();
+            return new TransferResponse("success", 1L, 2L, other.getAmount(), "Rent", LocalDateTime.now());
+        }));
+
+        assertEquals(0, executions.get());
+        IdempotencyRecord record = idempotencyRecordRepository.findById(new IdempotencyRecordId(USER_ID, key)).orElseThrow();
+        assertEquals(0, request.getAmount().compareTo(record.getAmount()));
+        assertEquals(IdempotencyStatus.PENDING, record.getStatus());
+    }
+
+    private void reserve(TransferRequest request, LocalDateTime createdAt) {
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.reserve(USER_ID, key,
+                request.getFromCardId(), request.getToCardId(), request.getAmount(), request.getDescription(),
+                createdAt, createdAt));
+    }
+}
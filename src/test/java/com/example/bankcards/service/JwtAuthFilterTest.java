@@ -0,0 +1,158 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JwtAuthFilter;
+import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.bankcards.service.SqlStatementCounter")
+public class JwtAuthFilterTest {
+
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    private Long createdUserId;
+
+    @BeforeEach
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void deleteUser() {
+        if (createdUserId != null) {
+            userRepository.deleteById(createdUserId);
+        }
+    }
+
+    @Test
+    void authenticatedRequestDoesNotQueryUsers() {
+        User user1 = userRepository.findByUsername("user1")
+                .orElseThrow(() -> new RuntimeException("User1 not found"));
+        String token = jwtUtil.generateToken(new UserDetailsImpl(user1));
+        // Первый запрос читает состояние пользователя, дальше оно берётся из кэша
+        filter(token);
+        SecurityContextHolder.clearContext();
+
+        List<String> statements = SqlStatementCounter.record(() -> filter(token));
+
+        assertEquals(List.of(), statements);
+        UserDetailsImpl principal = (UserDetailsImpl) authentication().getPrincipal();
+        assertEquals(user1.getId(), principal.getId());
+        assertEquals("user1", principal.getUsername());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void deactivationRevokesIssuedTokens() {
+        User created = createUser();
+        String token = jwtUtil.generateToken(new UserDetailsImpl(created));
+        filter(token);
+        assertNotNull(authentication());
+
+        userService.deactivateUser(createdUserId);
+        SecurityContextHolder.clearContext();
+        filter(token);
+        assertNull(authentication());
+
+        // После повторной активации старый токен всё равно отклоняется — версия увеличена
+        created = userRepository.findById(createdUserId).orElseThrow();
+        created.setActive(true);
+        created.setPassword(null);
+        userService.updateUser(createdUserId, created);
+        filter(token);
+        assertNull(authentication());
+    }
+
+    @Test
+    void revocationOnAnotherNodeIsPickedUpByRefresh() {
+        User created = createUser();
+        String token = jwtUtil.generateToken(new UserDetailsImpl(created));
+        filter(token);
+        assertNotNull(authentication());
+
+        // Другой узел увеличил версию — кэш этого узла узнаёт об этом только из опроса
+        created.setTokenVersion(created.getTokenVersion() + 1);
+        created.setTokenVersionChangedAt(LocalDateTime.now());
+        userRepository.save(created);
+        SecurityContextHolder.clearContext();
+        tokenVersionCache.refresh();
+        filter(token);
+        assertNull(authentication());
+    }
+
+    @Test
+    void unknownUserIsRejectedWithoutRepeatedQueries() {
+        User unknown = new User();
+        unknown.setId(Long.MAX_VALUE);
+        unknown.setUsername("jwt-unknown-test");
+        unknown.setPassword("password");
+        unknown.setRole(UserRole.USER);
+        String token = jwtUtil.generateToken(new UserDetailsImpl(unknown));
+
+        assertEquals(1, SqlStatementCounter.record(() -> filter(token)).size());
+        assertEquals(0, SqlStatementCounter.record(() -> filter(token)).size());
+        assertNull(authentication());
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setUsername("jwt-revocation-test");
+        user.setPassword("password");
+        user.setFirstName("Jwt");
+        user.setLastName("Test");
+        user.setRole(UserRole.USER);
+        userService.createUser(user);
+        User created = userRepository.findByUsername("jwt-revocation-test").orElseThrow();
+        createdUserId = created.getId();
+        return created;
+    }
+
+    private void filter(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Authentication authentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardBalanceDrift;
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.SchedulerLock;
+import com.example.bankcards.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"ledger.checkpoint.settle-interval=0s", "ledger.reconciliation.range-size=1"})
+public class LedgerServiceTest extends CardTestSupport {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "LEDGER TEST", new BigDecimal("100.00"));
+    }
+
+    @AfterEach
+    void deleteLocks() {
+        schedulerLockRepository.deleteAll();
+    }
+
+    @Test
+    void balancesMatchLedgerAcrossCheckpoints() {
+        Long first = cardIds.get(0);
+        Long second = cardIds.get(1);
+
+        transferService.transferBetweenCards(new TransferRequest(first, second, new BigDecimal("30.00"), null));
+        ledgerService.advanceCheckpoints();
+        transferService.transferBatch(List.of(new TransferRequest(second, first, new BigDecimal("10.00"), null)));
+
+        ReconciliationReport report = ledgerService.reconcile();
+        assertTrue(driftedCards(report).stream().noneMatch(cardIds::contains));
+    }
+
+    @Test
+    void balanceChangedOutsideLedgerIsReported() {
+        Card card = cardRepository.findById(cardIds.get(0)).orElseThrow();
+        card.setBalance(new BigDecimal("150.00"));
+        cardRepository.save(card);
+
+        CardBalanceDrift drift = ledgerService.reconcile().getDrifts().stream()
+                .filter(candidate -> candidate.getCardId().equals(cardIds.get(0)))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("100.00").compareTo(drift.getLedgerBalance()));
+    }
+
+    @Test
+    void reconciliationIsSkippedWhileAnotherNodeHoldsTheLease() {
+        schedulerLockRepository.save(new SchedulerLock("ledger-reconciliation", "other-node", LocalDateTime.now().plusMinutes(5)));
+
+        ReconciliationReport report = ledgerService.reconcile();
+
+        assertFalse(report.isLockAcquired());
+        assertEquals(0, report.getRangesChecked());
+    }
+
+    private List<Long> driftedCards(ReconciliationReport report) {
+        return report.getDrifts().stream().map(CardBalanceDrift::getCardId).toList();
+    }
+}
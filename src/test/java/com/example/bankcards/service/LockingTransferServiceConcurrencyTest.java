@@ -0,0 +1,7 @@
+package com.example.bankcards.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "transfer.mode=LOCKING")
+public class LockingTransferServiceConcurrencyTest extends TransferServiceConcurrencyTest {
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Конкуренция в стресс-тесте заведомо выше, чем та, на которую рассчитан режим, поэтому лимит повторов поднят,
+// а вместе с ним и срок, после которого ключ идемпотентности может быть перехвачен
+@SpringBootTest(properties = {"transfer.mode=OPTIMISTIC", "optimistic-lock.max-attempts=100", "optimistic-lock.backoff-ms=5",
+        "idempotency.pending-timeout=2h"})
+public class OptimisticTransferServiceConcurrencyTest extends TransferServiceConcurrencyTest {
+}
@@ -0,0 +1,93 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.entity.enums.OutboxEventType;
+import com.example.bankcards.repository.OutboxEventRepository;
+import com.example.bankcards.service.impl.InMemoryOutboxEventSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"outbox.sink=memory", "outbox.relay.batch-size=50"})
+public class OutboxRelayTest extends CardTestSupport {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private InMemoryOutboxEventSink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "OUTBOX TEST", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void committedChangesAreRelayedInBatchesAndRemovedFromOutbox() {
+        Long first = cardIds.get(0);
+        transferService.transferBetweenUserCards(userId, new TransferRequest(first, cardIds.get(1), BigDecimal.TEN, null));
+        cardService.blockCard(first, userId);
+        cardService.unblockCard(first, userId);
+
+        while (outboxService.relayBatch() > 0) {
+            // дренируем пачками по 50
+        }
+
+        List<OutboxEventType> cardEvents = sink.getEvents().stream()
+                .filter(event -> event.getAggregateId().equals(first))
+                .map(OutboxEvent::getEventType)
+                .toList();
+        assertEquals(List.of(OutboxEventType.CARD_BLOCKED, OutboxEventType.CARD_UNBLOCKED), cardEvents);
+        // По версии потребитель восстанавливает порядок событий карты, даже если они доставлены иначе
+        List<Long> versions = sink.getEvents().stream()
+                .filter(event -> event.getAggregateId().equals(first) && event.getEventType() != OutboxEventType.TRANSFER_COMPLETED)
+                .map(event -> payloadVersion(event.getPayload()))
+                .toList();
+        assertTrue(versions.get(0) < versions.get(1));
+        assertEquals(cardRepository.findById(first).orElseThrow().getVersion(), versions.get(1));
+        assertTrue(sink.getEvents().stream().anyMatch(event -> event.getEventType() == OutboxEventType.TRANSFER_COMPLETED
+                && event.getPayload().contains("\"fromCardId\":" + first)));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void rejectedTransferLeavesNoEvent() {
+        long before = outboxEventRepository.count();
+
+        try {
+            transferService.transferBetweenUserCards(userId,
+                    new TransferRequest(cardIds.get(0), cardIds.get(1), new BigDecimal("1000.00"), null));
+        } catch (RuntimeException ignored) {
+            // недостаточно средств
+        }
+
+        assertEquals(before, outboxEventRepository.count());
+    }
+
+    private Long payloadVersion(String payload) {
+        try {
+            return objectMapper.readTree(payload).get("version").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.security.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exact number of SQL statements per endpoint, counted for the whole request: JWT filter,
+ * controller and service. Every request is preceded by a warm-up call on another endpoint,
+ * so the counts describe the steady state with the caller's token state already cached.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.bankcards.service.SqlStatementCounter",
+        "cards.cache.max-size=0",
+        "cards.cache.max-users=0"
+})
+@AutoConfigureMockMvc
+public class QueryCountTest extends CardTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String userToken;
+    private String adminToken;
+
+    @BeforeEach
+    void createCards() throws Exception {
+        userToken = token("user1");
+        adminToken = token("admin");
+        createCards(2, "QUERY COUNT TEST", new BigDecimal("100.00"));
+        perform(get("/cards/my/transactions").header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken));
+        perform(get("/cards/my/transactions").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken));
+    }
+
+    @Test
+    void transferIssuesNoReads() {
+        List<String> statements = record(post("/cards/transfer")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromCardId\":" + cardIds.get(0) + ",\"toCardId\":" + cardIds.get(1) + ",\"amount\":1}"));
+
+        // debit, credit, transaction, ledger entries, two daily totals, outbox event
+        assertEquals(7, statements.size(), String.join("\n", statements));
+        assertTrue(statements.stream().noneMatch(sql -> sql.startsWith("select")), String.join("\n", statements));
+    }
+
+    @Test
+    void blockAndUnblockReadCardAndCallerRoleInOneStatement() {
+        List<String> blockStatements = record(post("/cards/" + cardIds.get(0) + "/block")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken));
+        List<String> unblockStatements = record(post("/cards/" + cardIds.get(0) + "/unblock")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken));
+
+        // card with caller role, outbox event, versioned update
+        assertEquals(3, blockStatements.size(), String.join("\n", blockStatements));
+        assertEquals(3, unblockStatements.size(), String.join("\n", unblockStatements));
+        assertTrue(blockStatements.stream().noneMatch(sql -> sql.startsWith("select u")), String.join("\n", blockStatements));
+    }
+
+    @Test
+    void cardReadsIssueOneStatement() {
+        List<String> cardStatements = record(get("/cards/" + cardIds.get(0))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken));
+        // Страница неполная, поэтому Spring Data не выполняет COUNT
+        List<String> pageStatements = record(get("/cards/my").param("size", "1000")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken));
+
+        assertEquals(1, cardStatements.size(), String.join("\n", cardStatements));
+        assertEquals(1, pageStatements.size(), String.join("\n", pageStatements));
+    }
+
+    private String token(String username) {
+        return jwtUtil.generateToken(new UserDetailsImpl(userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException(username + " not found"))));
+    }
+
+    private List<String> record(RequestBuilder request) {
+        return SqlStatementCounter.record(() -> {
+            try {
+                perform(request);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records SQL prepared by Hibernate on the calling thread while {@link #record} runs,
+ * so that background jobs sharing the session factory do not affect the count.
+ * Sequence calls are skipped: ids are allocated in pools, so whether a call hits the
+ * sequence depends on earlier inserts. A JDBC batch is recorded once per statement text.
+ * Registered with spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null && !sql.startsWith("select nextval(")) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            action.run();
+            return statements;
+        } finally {
+            STATEMENTS.remove();
+        }
+    }
+}
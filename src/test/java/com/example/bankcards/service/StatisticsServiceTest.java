@@ -0,0 +1,58 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDailyTotalDto;
+import com.example.bankcards.dto.DailyVolumeDto;
+import com.example.bankcards.dto.TransferRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class StatisticsServiceTest extends CardTestSupport {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "STATISTICS TEST", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void transfersUpdateDailyTotalsInTheSameTransaction() {
+        Long first = cardIds.get(0);
+        Long second = cardIds.get(1);
+        LocalDate today = LocalDate.now();
+        BigDecimal volumeBefore = todayVolume();
+
+        transferService.transferBetweenCards(new TransferRequest(first, second, new BigDecimal("30.00"), null));
+        transferService.transferBetweenCards(new TransferRequest(second, first, new BigDecimal("5.00"), null));
+        transferService.transferBatch(List.of(new TransferRequest(first, second, new BigDecimal("15.00"), null)));
+
+        CardDailyTotalDto totals = statisticsService.getCardDailyTotals(first, today, today).get(0);
+        assertEquals(0, new BigDecimal("45.00").compareTo(totals.getDebitSum()));
+        assertEquals(0, new BigDecimal("5.00").compareTo(totals.getCreditSum()));
+        assertEquals(2L, totals.getDebitCount());
+        assertEquals(1L, totals.getCreditCount());
+
+        assertEquals(0, volumeBefore.add(new BigDecimal("50.00")).compareTo(todayVolume()));
+    }
+
+    private BigDecimal todayVolume() {
+        LocalDate today = LocalDate.now();
+        return statisticsService.getDailyVolume(today, today).stream()
+                .map(DailyVolumeDto::getAmount)
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class TransactionExportTest extends CardTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LocalDateTime from;
+
+    @BeforeEach
+    void createTransfers() {
+        createCards(2, "EXPORT TEST", new BigDecimal("100.00"));
+
+        from = LocalDateTime.now().minusSeconds(1);
+        transferService.transferBetweenUserCards(userId,
+                new TransferRequest(cardIds.get(0), cardIds.get(1), new BigDecimal("10.50"), "Rent, March"));
+        transferService.transferBetweenUserCards(userId,
+                new TransferRequest(cardIds.get(1), cardIds.get(0), new BigDecimal("2.00"), "Refund"));
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerLineInTimestampOrder() throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export(TransactionExportFormat.NDJSON)) {
+            JsonNode row = objectMapper.readTree(line);
+            if (cardIds.contains(row.get("toCardId").asLong())) {
+                rows.add(row);
+            }
+        }
+
+        assertEquals(2, rows.size());
+        assertEquals("Rent, March", rows.get(0).get("description").asText());
+        assertEquals("Refund", rows.get(1).get("description").asText());
+    }
+
+    @Test
+    void csvExportQuotesDescriptionsWithSeparators() throws IOException {
+        List<String> lines = export(TransactionExportFormat.CSV);
+
+        assertEquals("id,fromCardId,toCardId,amount,timestamp,description", lines.get(0));
+        String expectedPrefix = "," + cardIds.get(0) + "," + cardIds.get(1) + ",10.50,";
+        assertTrue(lines.stream().anyMatch(line -> line.contains(expectedPrefix) && line.endsWith(",\"Rent, March\"")));
+    }
+
+    private List<String> export(TransactionExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionService.exportTransactions(from, LocalDateTime.now().plusSeconds(1), format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransactionDto;
+import com.example.bankcards.dto.TransactionHistoryResponse;
+import com.example.bankcards.dto.TransferRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class TransactionHistoryTest extends CardTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "HISTORY TEST", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void cardHistoryIsPagedNewestFirstAcrossBothDirections() {
+        Long first = cardIds.get(0);
+        Long second = cardIds.get(1);
+        for (int i = 1; i <= 5; i++) {
+            Long from = i % 2 == 0 ? second : first;
+            Long to = i % 2 == 0 ? first : second;
+            transferService.transferBetweenUserCards(userId, new TransferRequest(from, to, BigDecimal.ONE, "Transfer " + i));
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        TransactionHistoryResponse page = transactionService.getCardHistory(userId, first, null, null, 2);
+        while (true) {
+            page.getTransactions().stream().map(TransactionDto::getDescription).forEach(descriptions::add);
+            if (page.getNextBeforeId() == null) {
+                break;
+            }
+            page = transactionService.getCardHistory(userId, first, page.getNextBeforeTimestamp(), page.getNextBeforeId(), 2);
+        }
+
+        assertEquals(List.of("Transfer 5", "Transfer 4", "Transfer 3", "Transfer 2", "Transfer 1"), descriptions);
+
+        TransactionHistoryResponse userPage = transactionService.getUserHistory(userId, null, null, 5);
+        assertEquals(descriptions, userPage.getTransactions().stream().map(TransactionDto::getDescription).toList());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert throughput of transaction rows written the way performTransfer writes them.
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionInsertBenchmarkTest
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class TransactionInsertBenchmarkTest extends CardTestSupport {
+
+    private static final int WARMUP_ROWS = 2_000;
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "BENCHMARK", BigDecimal.ZERO);
+    }
+
+    @Test
+    void transactionInsertThroughput() {
+        insert(WARMUP_ROWS);
+
+        long started = System.nanoTime();
+        insert(ROWS);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        Number inserted = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM transactions WHERE from_card_id = :cardId")
+                .setParameter("cardId", cardIds.get(0))
+                .getSingleResult();
+        assertEquals(WARMUP_ROWS + ROWS, inserted.intValue());
+        log.info("Inserted {} transactions in {} ms ({} rows/s)", ROWS, elapsedMs, ROWS * 1000L / Math.max(elapsedMs, 1));
+    }
+
+    private void insert(int rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Card fromCard = cardRepository.getReferenceById(cardIds.get(0));
+            Card toCard = cardRepository.getReferenceById(cardIds.get(1));
+
+            List<Transaction> transactions = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setFromCard(fromCard);
+                transaction.setToCard(toCard);
+                transaction.setAmount(BigDecimal.ONE);
+                transaction.setTimestamp(LocalDateTime.now());
+                transaction.setDescription("Benchmark");
+                transactions.add(transaction);
+            }
+            transactionRepository.saveAll(transactions);
+        });
+    }
+}
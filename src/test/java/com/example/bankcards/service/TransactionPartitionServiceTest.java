@@ -0,0 +1,117 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Transaction;
+import com.example.bankcards.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "transactions.archive.directory=target/test-archive")
+public class TransactionPartitionServiceTest extends CardTestSupport {
+
+    private static final String OLD_PARTITION = "transactions_p200001";
+    private static final String DETACHED_PARTITION = "transactions_p200002";
+
+    @Autowired
+    private TransactionPartitionService transactionPartitionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "PARTITION TEST", new BigDecimal("100.00"));
+    }
+
+    @AfterEach
+    void dropOldPartition() {
+        execute("DROP TABLE IF EXISTS " + OLD_PARTITION);
+        execute("DROP TABLE IF EXISTS " + DETACHED_PARTITION);
+    }
+
+    @Test
+    void partitionsAreCreatedAheadOfTime() {
+        transactionPartitionService.createUpcomingPartitions();
+
+        String partition = "transactions_p" + YearMonth.now().plusMonths(3).format(DateTimeFormatter.ofPattern("yyyyMM"));
+        Number count = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM pg_class WHERE relname = '" + partition + "'").getSingleResult();
+        assertEquals(1, count.intValue());
+    }
+
+    @Test
+    void createdPartitionsAreAttachedAndCounted() {
+        transactionPartitionService.createUpcomingPartitions();
+
+        String partition = "transactions_p" + YearMonth.now().plusMonths(3).format(DateTimeFormatter.ofPattern("yyyyMM"));
+        Number attached = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE c.relname = '" + partition + "'").getSingleResult();
+        assertEquals(1, attached.intValue());
+        assertTrue(meterRegistry.get("transactions.partitions.months.covered").gauge().value() >= 4);
+    }
+
+    @Test
+    void expiredPartitionIsArchivedThenDropped() throws IOException {
+        execute("CREATE TABLE " + OLD_PARTITION + " PARTITION OF transactions FOR VALUES FROM ('2000-01-01') TO ('2000-02-01')");
+        transactionTemplate.executeWithoutResult(status -> {
+            Transaction transaction = new Transaction();
+            transaction.setFromCard(cardRepository.getReferenceById(cardIds.get(0)));
+            transaction.setToCard(cardRepository.getReferenceById(cardIds.get(1)));
+            transaction.setAmount(new BigDecimal("7.00"));
+            transaction.setTimestamp(LocalDateTime.of(2000, 1, 15, 12, 0));
+            transaction.setDescription("Archived transfer");
+            transactionRepository.save(transaction);
+        });
+
+        List<String> archived = transactionPartitionService.archiveExpiredPartitions();
+
+        assertTrue(archived.contains(OLD_PARTITION));
+        Path file = Paths.get("target/test-archive", OLD_PARTITION + ".csv.gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(csv.contains(",7.00,2000-01-15T12:00,Archived transfer"));
+        }
+        assertTrue(transactionRepository.findByCardId(cardIds.get(0)).isEmpty());
+    }
+
+    @Test
+    void partitionLeftDetachedByInterruptedRunIsDropped() throws IOException {
+        execute("CREATE TABLE " + DETACHED_PARTITION + " (LIKE transactions)");
+        Path file = Paths.get("target/test-archive", DETACHED_PARTITION + ".csv.gz");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[0]);
+
+        transactionPartitionService.archiveExpiredPartitions();
+
+        Number count = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM pg_class WHERE relname = '" + DETACHED_PARTITION + "'").getSingleResult();
+        assertEquals(0, count.intValue());
+    }
+
+    private void execute(String sql) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(sql).executeUpdate());
+    }
+}
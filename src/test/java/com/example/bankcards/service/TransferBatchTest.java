@@ -0,0 +1,75 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BatchTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = "transfer.batch.chunk-size=2")
+public class TransferBatchTest extends CardTestSupport {
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void createCards() {
+        createCards(2, "BATCH TEST", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void rejectedTransfersDoNotAffectTheRestOfTheBatch() {
+        Long first = cardIds.get(0);
+        Long second = cardIds.get(1);
+
+        BatchTransferResponse response = transferService.transferBatch(List.of(
+                new TransferRequest(first, second, new BigDecimal("60.00"), "Payroll"),
+                new TransferRequest(first, second, new BigDecimal("60.00"), "Payroll"),
+                new TransferRequest(second, first, new BigDecimal("10.00"), "Payroll"),
+                new TransferRequest(first, Long.MAX_VALUE, new BigDecimal("1.00"), "Payroll")
+        ));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals("Insufficient funds on source card", response.getResults().get(1).getMessage());
+        assertEquals("Card not found with id: " + Long.MAX_VALUE, response.getResults().get(3).getMessage());
+
+        assertEquals(0, new BigDecimal("50.00").compareTo(cardRepository.findById(first).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(cardRepository.findById(second).orElseThrow().getBalance()));
+        assertEquals(2, transactionRepository.findByCardId(first).size());
+    }
+
+    @Test
+    void unexpectedFailureRollsBackOnlyItsChunk() {
+        Long first = cardIds.get(0);
+        Long second = cardIds.get(1);
+
+        // Сумма null падает с NPE внутри второго чанка; первый чанк уже закоммичен
+        BatchTransferResponse response = transferService.transferBatch(List.of(
+                new TransferRequest(first, second, new BigDecimal("10.00"), "Payroll"),
+                new TransferRequest(first, second, new BigDecimal("10.00"), "Payroll"),
+                new TransferRequest(first, second, new BigDecimal("10.00"), "Payroll"),
+                new TransferRequest(first, second, null, "Payroll")
+        ));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        String cause = response.getResults().get(3).getMessage();
+        assertNotNull(cause);
+        assertFalse(cause.startsWith("Chunk transaction was rolled back"));
+        assertEquals("Chunk transaction was rolled back: " + cause, response.getResults().get(2).getMessage());
+        assertEquals(0, new BigDecimal("80.00").compareTo(cardRepository.findById(first).orElseThrow().getBalance()));
+    }
+}
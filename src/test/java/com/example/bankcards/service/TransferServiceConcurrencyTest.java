@@ -0,0 +1,84 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class TransferServiceConcurrencyTest extends CardTestSupport {
+
+    private static final int CARDS = 4;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @BeforeEach
+    void createCards() {
+        createCards(CARDS, "STRESS TEST", INITIAL_BALANCE);
+    }
+
+    @Test
+    void concurrentTransfersKeepTotalBalance() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    // Встречные переводы между одними и теми же картами — худший случай для deadlock
+                    int from = random.nextInt(CARDS);
+                    int to = (from + 1 + random.nextInt(CARDS - 1)) % CARDS;
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 300));
+                    try {
+                        transferService.transferBetweenCards(new TransferRequest(
+                                cardIds.get(from), cardIds.get(to), amount, "Stress test"));
+                    } catch (InsufficientFundsException ignored) {
+                        // ожидаемо при высокой конкуренции за одну карту
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Transfers did not finish in time");
+
+        assertTrue(failures.isEmpty(), "Unexpected transfer failures: " + failures);
+
+        List<Card> cards = cardRepository.findAllById(cardIds);
+        BigDecimal total = cards.stream()
+                .map(Card::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(CARDS)).compareTo(total),
+                "Total balance changed: " + total);
+        cards.forEach(card -> assertTrue(card.getBalance().signum() >= 0,
+                "Negative balance on card " + card.getId()));
+    }
+}
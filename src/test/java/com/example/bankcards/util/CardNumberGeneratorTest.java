@@ -0,0 +1,58 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CardNumberGeneratorTest {
+
+    private static final long KEY = 7345219853016642937L;
+
+    @Test
+    void cardNumbersAreSixteenDigitLuhnValid() {
+        assertEquals("4000000000000002", CardNumberGenerator.fromAccountNumber(0));
+        assertEquals("4999999999999996", CardNumberGenerator.fromAccountNumber(CardNumberGenerator.ACCOUNT_NUMBER_SPACE - 1));
+
+        for (long accountNumber = 1; accountNumber <= 10_000; accountNumber++) {
+            String cardNumber = CardNumberGenerator.fromAccountNumber(CardNumberGenerator.permute(accountNumber, KEY));
+            assertEquals(16, cardNumber.length());
+            assertTrue(isLuhnValid(cardNumber), cardNumber);
+        }
+    }
+
+    @Test
+    void permutationIsCollisionFreeAndNotSequential() {
+        Set<Long> permuted = new HashSet<>();
+        long start = 123_456_789L;
+        for (long accountNumber = start; accountNumber < start + 100_000; accountNumber++) {
+            long value = CardNumberGenerator.permute(accountNumber, KEY);
+            assertTrue(value >= 0 && value < CardNumberGenerator.ACCOUNT_NUMBER_SPACE);
+            assertTrue(permuted.add(value));
+        }
+
+        long first = CardNumberGenerator.permute(start, KEY);
+        long second = CardNumberGenerator.permute(start + 1, KEY);
+        assertTrue(Math.abs(second - first) > 1_000_000);
+        assertNotEquals(first, CardNumberGenerator.permute(start, KEY + 1));
+    }
+
+    private static boolean isLuhnValid(String number) {
+        int sum = 0;
+        for (int i = 0; i < number.length(); i++) {
+            int digit = number.charAt(number.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+}